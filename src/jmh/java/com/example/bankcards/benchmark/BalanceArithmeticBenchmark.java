@@ -0,0 +1,82 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.util.MoneyUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BalanceArithmeticBenchmark {
+
+    private BigDecimal fromDecimal;
+    private BigDecimal toDecimal;
+    private BigDecimal amountDecimal;
+
+    private long fromMinor;
+    private long toMinor;
+    private long amountMinor;
+
+    @Setup
+    public void setUp() {
+        fromDecimal = new BigDecimal("1000.00");
+        toDecimal = new BigDecimal("500.00");
+        amountDecimal = new BigDecimal("12.34");
+        fromMinor = MoneyUtil.toMinorUnits(fromDecimal);
+        toMinor = MoneyUtil.toMinorUnits(toDecimal);
+        amountMinor = MoneyUtil.toMinorUnits(amountDecimal);
+    }
+
+    @Benchmark
+    public void decimalTransferRoundTrip(Blackhole blackhole) {
+        if (fromDecimal.compareTo(amountDecimal) >= 0) {
+            fromDecimal = fromDecimal.subtract(amountDecimal);
+            toDecimal = toDecimal.add(amountDecimal);
+        }
+        if (toDecimal.compareTo(amountDecimal) >= 0) {
+            toDecimal = toDecimal.subtract(amountDecimal);
+            fromDecimal = fromDecimal.add(amountDecimal);
+        }
+        blackhole.consume(fromDecimal);
+        blackhole.consume(toDecimal);
+    }
+
+    @Benchmark
+    public void minorUnitTransferRoundTrip(Blackhole blackhole) {
+        if (fromMinor >= amountMinor) {
+            fromMinor -= amountMinor;
+            toMinor += amountMinor;
+        }
+        if (toMinor >= amountMinor) {
+            toMinor -= amountMinor;
+            fromMinor += amountMinor;
+        }
+        blackhole.consume(fromMinor);
+        blackhole.consume(toMinor);
+    }
+
+    @Benchmark
+    public BigDecimal minorUnitToJsonBoundary() {
+        return MoneyUtil.fromMinorUnits(fromMinor);
+    }
+
+    @Benchmark
+    public long jsonBoundaryToMinorUnit() {
+        return MoneyUtil.toMinorUnits(amountDecimal);
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.util.CardEncryptionUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CardEncryptionBenchmark {
+
+    private static final String KEY = "card-encryption-key-32-chars-123";
+    private static final String CARD_NUMBER = "4000001234567899";
+
+    private SecretKeySpec secretKey;
+    private CardEncryptionUtil encryptionUtil;
+    private String legacyCiphertext;
+    private String envelope;
+
+    @Setup
+    public void setUp() throws Exception {
+        secretKey = new SecretKeySpec(KEY.getBytes(StandardCharsets.UTF_8), "AES");
+        encryptionUtil = new CardEncryptionUtil(KEY);
+        legacyCiphertext = legacyEncrypt();
+        envelope = encryptionUtil.encrypt(CARD_NUMBER);
+    }
+
+    @Benchmark
+    public String legacyEncrypt() throws Exception {
+        Cipher cipher = Cipher.getInstance("AES");
+        cipher.init(Cipher.ENCRYPT_MODE, secretKey);
+        return Base64.getEncoder().encodeToString(cipher.doFinal(CARD_NUMBER.getBytes()));
+    }
+
+    @Benchmark
+    public String legacyDecrypt() throws Exception {
+        Cipher cipher = Cipher.getInstance("AES");
+        cipher.init(Cipher.DECRYPT_MODE, secretKey);
+        return new String(cipher.doFinal(Base64.getDecoder().decode(legacyCiphertext)));
+    }
+
+    @Benchmark
+    public String gcmEncrypt() {
+        return encryptionUtil.encrypt(CARD_NUMBER);
+    }
+
+    @Benchmark
+    public String gcmDecrypt() {
+        return encryptionUtil.decrypt(envelope);
+    }
+
+    @Benchmark
+    public String legacyDecryptThroughFallback() {
+        return encryptionUtil.decrypt(legacyCiphertext);
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.UserRole;
+import com.example.bankcards.security.JwtAuthenticationFilter;
+import com.example.bankcards.security.JwtUtil;
+import com.example.bankcards.security.UserPrincipal;
+import com.example.bankcards.service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationBenchmark {
+
+    private static final String SECRET = "bank-cards-secret-key-2024-very-secure-and-long-32-chars";
+    private static final int DISTINCT_TOKENS = 64;
+
+    private User user;
+    private JwtUtil jwtUtil;
+    private JwtAuthenticationFilter filter;
+    private JwtAuthenticationFilter uncachedFilter;
+    private String token;
+    private String[] distinctTokens;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        user = user(1L);
+        jwtUtil = new JwtUtil(SECRET, TimeUnit.HOURS.toMillis(1), 10_000);
+        filter = new JwtAuthenticationFilter(jwtUtil, new NeverRevoked());
+        token = jwtUtil.generateToken(user);
+
+        JwtUtil uncachedJwtUtil = new JwtUtil(SECRET, TimeUnit.HOURS.toMillis(1), 1);
+        uncachedFilter = new JwtAuthenticationFilter(uncachedJwtUtil, new NeverRevoked());
+        distinctTokens = new String[DISTINCT_TOKENS];
+        for (int i = 0; i < DISTINCT_TOKENS; i++) {
+            distinctTokens[i] = uncachedJwtUtil.generateToken(user(i + 1L));
+        }
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtUtil.validateToken(token);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtUtil.extractUsername(token);
+    }
+
+    @Benchmark
+    public String legacyValidateThenExtract() {
+        Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseClaimsJws(token);
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody()
+                .getSubject();
+    }
+
+    @Benchmark
+    public String singlePassParseClaims() {
+        return jwtUtil.parseClaims(token).map(Claims::getSubject).orElseThrow();
+    }
+
+    @Benchmark
+    public UserPrincipal cachedParsePrincipal() {
+        return jwtUtil.parsePrincipal(token).orElseThrow();
+    }
+
+    @Benchmark
+    public Authentication filterRequest() throws ServletException, IOException {
+        return filter(filter, token);
+    }
+
+    @Benchmark
+    public Authentication filterRequestUncached() throws ServletException, IOException {
+        String nextToken = distinctTokens[next];
+        next = (next + 1) % DISTINCT_TOKENS;
+        return filter(uncachedFilter, nextToken);
+    }
+
+    private static Authentication filter(JwtAuthenticationFilter filter, String token) throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/cards/my");
+        request.addHeader("Authorization", "Bearer " + token);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private static User user(Long id) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername("benchmark-" + id);
+        user.setUserRole(UserRole.USER);
+        return user;
+    }
+
+    private static final class NeverRevoked implements TokenRevocationService {
+
+        @Override
+        public boolean isRevoked(UserPrincipal principal) {
+            return false;
+        }
+
+        @Override
+        public void revoke(Long userId, long tokenVersion) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int refresh() {
+            return 0;
+        }
+    }
+}
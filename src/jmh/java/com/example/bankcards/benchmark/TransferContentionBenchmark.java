@@ -0,0 +1,206 @@
+package com.example.bankcards.benchmark;
+
+import com.example.CardsApplication;
+import com.example.bankcards.dto.CardResponseDto;
+import com.example.bankcards.dto.CreateCardRequestDto;
+import com.example.bankcards.dto.TransferRequestDto;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.UserRole;
+import com.example.bankcards.exception.CardLockTimeoutException;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.UserPrincipal;
+import com.example.bankcards.service.AdminCardService;
+import com.example.bankcards.service.UserCardService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(16)
+@Fork(1)
+public class TransferContentionBenchmark {
+
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("1000000.00");
+    private static final BigDecimal AMOUNT = new BigDecimal("1.00");
+
+    public enum Profile {
+        UNIFORM,
+        HOT_CARD,
+        PAIRS
+    }
+
+    @State(Scope.Benchmark)
+    public static class Bank {
+
+        @Param({"UNIFORM", "HOT_CARD", "PAIRS"})
+        public Profile profile;
+
+        @Param({"1000"})
+        public int cards;
+
+        ConfigurableApplicationContext context;
+        UserCardService cardService;
+        JdbcTemplate jdbcTemplate;
+        List<UserPrincipal> owners;
+        List<Long[]> ownerCards;
+        long balanceBefore;
+        long journalBefore;
+        final LongAdder rejected = new LongAdder();
+
+        @Setup(Level.Trial)
+        public void start() {
+            context = new SpringApplicationBuilder(CardsApplication.class)
+                    .properties(datasourceProperties())
+                    .run();
+            cardService = context.getBean(UserCardService.class);
+            jdbcTemplate = context.getBean(JdbcTemplate.class);
+            balanceBefore = sum("SELECT COALESCE(SUM(balance_minor), 0) FROM bank_cards");
+            journalBefore = sum("SELECT COALESCE(SUM(amount * 100), 0) FROM card_transactions");
+            seed();
+        }
+
+        @TearDown(Level.Trial)
+        public void verifyAndStop() {
+            try {
+                long expected = balanceBefore + cards * INITIAL_BALANCE.movePointRight(2).longValueExact();
+                long balanceAfter = sum("SELECT COALESCE(SUM(balance_minor), 0) FROM bank_cards");
+                long journalAfter = sum("SELECT COALESCE(SUM(amount * 100), 0) FROM card_transactions");
+                if (balanceAfter != expected) {
+                    throw new IllegalStateException("Total balance not conserved: expected " + expected
+                            + " minor units, got " + balanceAfter);
+                }
+                if (journalAfter - journalBefore != balanceAfter - balanceBefore) {
+                    throw new IllegalStateException("Journal diverged from balances: journal delta "
+                            + (journalAfter - journalBefore) + ", balance delta " + (balanceAfter - balanceBefore));
+                }
+                System.out.println("[" + profile + "] balance conserved, rejected transfers: " + rejected.sum());
+            } finally {
+                context.close();
+            }
+        }
+
+        private void seed() {
+            UserRepository userRepository = context.getBean(UserRepository.class);
+            AdminCardService adminCardService = context.getBean(AdminCardService.class);
+            int userCount = profile == Profile.PAIRS ? cards / 2 : 1;
+            int cardsPerUser = cards / userCount;
+            String run = Long.toString(System.nanoTime(), 36);
+            long cardPrefix = System.currentTimeMillis() % 1_000_000L;
+
+            owners = new ArrayList<>(userCount);
+            ownerCards = new ArrayList<>(userCount);
+            for (int u = 0; u < userCount; u++) {
+                User user = new User();
+                user.setUsername("bench-" + run + "-" + u);
+                user.setEmail("bench-" + run + "-" + u + "@example.com");
+                user.setPassword("{noop}benchmark");
+                user.setUserRole(UserRole.USER);
+                user = userRepository.save(user);
+
+                Long[] ids = new Long[cardsPerUser];
+                for (int c = 0; c < cardsPerUser; c++) {
+                    CardResponseDto card = adminCardService.createCard(new CreateCardRequestDto(
+                            String.format("4%06d%09d", cardPrefix, (long) u * cardsPerUser + c), "Bench User",
+                            LocalDate.now().plusYears(3), INITIAL_BALANCE, user.getId()));
+                    ids[c] = card.id();
+                }
+                owners.add(UserPrincipal.from(user));
+                ownerCards.add(ids);
+            }
+        }
+
+        private long sum(String sql) {
+            Number value = jdbcTemplate.queryForObject(sql, Number.class);
+            return value == null ? 0 : value.longValue();
+        }
+
+        private Map<String, Object> datasourceProperties() {
+            Map<String, Object> properties = new HashMap<>();
+            properties.put("spring.profiles.active", "benchmark");
+            properties.put("server.port", "0");
+            properties.put("logging.level.root", "WARN");
+            properties.put("logging.level.org.hibernate.SQL", "WARN");
+            properties.put("logging.level.org.hibernate.type.descriptor.sql.BasicBinder", "WARN");
+            properties.put("spring.jpa.properties.hibernate.show_sql", "false");
+            properties.put("transfer.limits.roles.USER.daily-amount", "99999999999.99");
+            properties.put("transfer.limits.roles.USER.daily-count", Integer.toString(Integer.MAX_VALUE));
+            properties.put("spring.datasource.hikari.maximum-pool-size",
+                    System.getProperty("benchmark.pool-size", "16"));
+
+            String url = System.getProperty("benchmark.datasource.url");
+            if (url != null) {
+                properties.put("spring.datasource.url", url);
+                properties.put("spring.datasource.username", System.getProperty("benchmark.datasource.username", "postgres"));
+                properties.put("spring.datasource.password", System.getProperty("benchmark.datasource.password", "postgres"));
+                return properties;
+            }
+            properties.put("spring.datasource.url", "jdbc:h2:mem:bench-" + System.nanoTime()
+                    + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1");
+            properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+            properties.put("spring.datasource.username", "sa");
+            properties.put("spring.datasource.password", "");
+            properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+            properties.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+            properties.put("spring.liquibase.enabled", "false");
+            return properties;
+        }
+    }
+
+    @Benchmark
+    public void transferBetweenCards(Bank bank) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int owner = random.nextInt(bank.owners.size());
+        Long[] cards = bank.ownerCards.get(owner);
+        int from;
+        int to;
+        switch (bank.profile) {
+            case HOT_CARD -> {
+                int other = 1 + random.nextInt(cards.length - 1);
+                boolean outgoing = random.nextBoolean();
+                from = outgoing ? 0 : other;
+                to = outgoing ? other : 0;
+            }
+            case PAIRS -> {
+                from = random.nextInt(2);
+                to = 1 - from;
+            }
+            default -> {
+                from = random.nextInt(cards.length);
+                to = (from + 1 + random.nextInt(cards.length - 1)) % cards.length;
+            }
+        }
+        try {
+            bank.cardService.transferBetweenCards(
+                    new TransferRequestDto(cards[from], cards[to], AMOUNT, "benchmark"), bank.owners.get(owner));
+        } catch (CardLockTimeoutException e) {
+            bank.rejected.increment();
+        }
+    }
+}
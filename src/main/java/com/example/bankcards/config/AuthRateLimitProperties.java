@@ -0,0 +1,20 @@
+package com.example.bankcards.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "security.auth-rate-limit")
+public record AuthRateLimitProperties(
+        @DefaultValue("100000") int maxBuckets,
+        @DefaultValue({"20", "PT3S"}) BucketLimits perIp,
+        @DefaultValue({"5", "PT12S"}) BucketLimits perUsername
+) {
+
+    public record BucketLimits(
+            int capacity,
+            Duration refillInterval
+    ) {
+    }
+}
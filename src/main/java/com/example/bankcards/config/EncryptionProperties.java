@@ -0,0 +1,16 @@
+package com.example.bankcards.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "encryption")
+public record EncryptionProperties(
+        String secret,
+        Map<Integer, String> keys,
+        @DefaultValue("1") int activeKeyId
+) {
+
+    public static final int LEGACY_KEY_ID = 1;
+}
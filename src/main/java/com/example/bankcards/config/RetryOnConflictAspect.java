@@ -0,0 +1,113 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.util.StatsProvider;
+import jakarta.persistence.OptimisticLockException;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+@Slf4j
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RetryOnConflictAspect implements StatsProvider {
+
+    private static final String SERIALIZATION_FAILURE = "40001";
+    private static final String DEADLOCK_DETECTED = "40P01";
+
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder recovered = new LongAdder();
+    private final LongAdder giveUps = new LongAdder();
+
+    public RetryOnConflictAspect(@Value("${retry.max-attempts:3}") int maxAttempts,
+                                 @Value("${retry.initial-backoff:PT0.02S}") Duration initialBackoff,
+                                 @Value("${retry.max-backoff:PT0.5S}") Duration maxBackoff) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMillis = initialBackoff.toMillis();
+        this.maxBackoffMillis = maxBackoff.toMillis();
+    }
+
+    @Around("@annotation(com.example.bankcards.util.RetryOnConflict)")
+    public Object retry(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Object result = joinPoint.proceed();
+                if (attempt > 1) {
+                    recovered.increment();
+                }
+                return result;
+            } catch (RuntimeException ex) {
+                if (!isRetryable(ex)) {
+                    throw ex;
+                }
+                if (attempt >= maxAttempts) {
+                    giveUps.increment();
+                    log.warn("Giving up {} after {} attempts: {}",
+                            joinPoint.getSignature().toShortString(), attempt, ex.getMessage());
+                    throw ex;
+                }
+                retries.increment();
+                log.debug("Retrying {} after concurrency failure (attempt {}): {}",
+                        joinPoint.getSignature().toShortString(), attempt, ex.getMessage());
+                backoff(attempt);
+            }
+        }
+    }
+
+    static boolean isRetryable(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConcurrencyFailureException || cause instanceof OptimisticLockException) {
+                return true;
+            }
+            if (cause instanceof SQLException sqlException) {
+                String state = sqlException.getSQLState();
+                if (SERIALIZATION_FAILURE.equals(state) || DEADLOCK_DETECTED.equals(state)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void backoff(int attempt) throws InterruptedException {
+        long ceiling = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempt - 1, 20));
+        if (ceiling > 0) {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        }
+    }
+
+    @Override
+    public String getStatsName() {
+        return "retryOnConflict";
+    }
+
+    @Override
+    public Map<String, Number> getStats() {
+        Map<String, Number> stats = new LinkedHashMap<>();
+        stats.put("retries", retries.sum());
+        stats.put("recovered", recovered.sum());
+        stats.put("giveUps", giveUps.sum());
+        return stats;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.entity.UserRole;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "transfer.limits")
+public record TransferLimitProperties(
+        @DefaultValue("PT24H") Duration window,
+        @DefaultValue("24") int buckets,
+        @DefaultValue("PT5M") Duration reconcileInterval,
+        Map<UserRole, RoleLimits> roles
+) {
+
+    public TransferLimitProperties {
+        roles = roles == null ? Map.of() : Map.copyOf(roles);
+    }
+
+    public record RoleLimits(
+            BigDecimal perTransaction,
+            BigDecimal dailyAmount,
+            Integer dailyCount
+    ) {
+    }
+}
@@ -1,9 +1,16 @@
 package com.example.bankcards.controller;
 
+import com.example.bankcards.dto.BulkCreateCardsRequestDto;
+import com.example.bankcards.dto.BulkCreateCardsResponseDto;
+import com.example.bankcards.dto.CardLimitDto;
 import com.example.bankcards.dto.CardResponseDto;
 import com.example.bankcards.dto.CreateCardRequestDto;
+import com.example.bankcards.dto.ReEncryptionStatusDto;
 import com.example.bankcards.entity.CardStatus;
 import com.example.bankcards.service.AdminCardService;
+import com.example.bankcards.service.BulkCardIssuanceService;
+import com.example.bankcards.service.CardReEncryptionService;
+import com.example.bankcards.service.TransferLimitService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -25,6 +32,9 @@ import org.springframework.web.bind.annotation.*;
 public class AdminCardController {
 
     private final AdminCardService cardService;
+    private final TransferLimitService transferLimitService;
+    private final CardReEncryptionService cardReEncryptionService;
+    private final BulkCardIssuanceService bulkCardIssuanceService;
 
     @GetMapping
     @Operation(summary = "Получить все карты (только для ADMIN)")
@@ -42,6 +52,31 @@ public class AdminCardController {
         return ResponseEntity.ok(cardService.createCard(request));
     }
 
+    @PostMapping("/bulk")
+    @Operation(summary = "Массовый выпуск карт с результатом по каждой позиции (только для ADMIN)")
+    public ResponseEntity<BulkCreateCardsResponseDto> createCards(@Valid
+                                                                  @RequestBody BulkCreateCardsRequestDto request) {
+        return ResponseEntity.ok(bulkCardIssuanceService.createCards(request.cards()));
+    }
+
+    @GetMapping("/lookup")
+    @Operation(summary = "Найти карту по полному номеру (только для ADMIN)")
+    public ResponseEntity<CardResponseDto> lookupCard(@RequestParam String cardNumber) {
+        return ResponseEntity.ok(cardService.findByCardNumber(cardNumber));
+    }
+
+    @PostMapping("/re-encryption")
+    @Operation(summary = "Запустить перешифрование карт активным ключом (только для ADMIN)")
+    public ResponseEntity<ReEncryptionStatusDto> startReEncryption() {
+        return ResponseEntity.accepted().body(cardReEncryptionService.start());
+    }
+
+    @GetMapping("/re-encryption")
+    @Operation(summary = "Прогресс перешифрования карт (только для ADMIN)")
+    public ResponseEntity<ReEncryptionStatusDto> getReEncryptionStatus() {
+        return ResponseEntity.ok(cardReEncryptionService.getStatus());
+    }
+
     @PostMapping("/{cardId}/status")
     @Operation(summary = "Изменить статус карты ( только для ADMIN )")
     public ResponseEntity<CardResponseDto> updateCardStatus(@Valid
@@ -50,6 +85,19 @@ public class AdminCardController {
         return ResponseEntity.ok(cardService.updateCardStatus(cardId, status));
     }
 
+    @GetMapping("/{cardId}/limits")
+    @Operation(summary = "Получить индивидуальные лимиты карты (только для ADMIN)")
+    public ResponseEntity<CardLimitDto> getCardLimits(@PathVariable Long cardId) {
+        return ResponseEntity.ok(transferLimitService.getCardLimits(cardId));
+    }
+
+    @PutMapping("/{cardId}/limits")
+    @Operation(summary = "Установить индивидуальные лимиты карты (только для ADMIN)")
+    public ResponseEntity<CardLimitDto> updateCardLimits(@PathVariable Long cardId,
+                                                         @Valid @RequestBody CardLimitDto limits) {
+        return ResponseEntity.ok(transferLimitService.updateCardLimits(cardId, limits));
+    }
+
     @DeleteMapping("/{cardId}")
     @Operation(summary = "Удалить карту ( только для ADMIN")
     public ResponseEntity<Void> deleteCard(
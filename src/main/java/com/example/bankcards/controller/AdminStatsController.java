@@ -0,0 +1,37 @@
+package com.example.bankcards.controller;
+
+import com.example.bankcards.util.StatsProvider;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@RestController
+@RequestMapping("/admin/stats")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+@SecurityRequirement(name = "bearerAuth")
+@Tag(name = "Admin Stats", description = "API для просмотра внутренних метрик приложения")
+public class AdminStatsController {
+
+    private final List<StatsProvider> statsProviders;
+
+    @GetMapping
+    @Operation(summary = "Получить метрики ( только для ADMIN )")
+    public ResponseEntity<Map<String, Map<String, Number>>> getStats() {
+        Map<String, Map<String, Number>> stats = new TreeMap<>();
+        for (StatsProvider provider : statsProviders) {
+            stats.put(provider.getStatsName(), provider.getStats());
+        }
+        return ResponseEntity.ok(stats);
+    }
+}
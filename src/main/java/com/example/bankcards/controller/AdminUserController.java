@@ -1,7 +1,9 @@
 package com.example.bankcards.controller;
 
 import com.example.bankcards.dto.UserDto;
+import com.example.bankcards.dto.UserImportResultDto;
 import com.example.bankcards.dto.UserUpdateDto;
+import com.example.bankcards.service.UserImportService;
 import com.example.bankcards.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -10,10 +12,15 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+
 @RestController
 @RequestMapping("/admin/users")
 @RequiredArgsConstructor
@@ -22,7 +29,11 @@ import org.springframework.web.bind.annotation.*;
 @Tag(name = "Admin Users", description = "API для административного управления пользователями")
 public class AdminUserController {
 
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String CSV = "text/csv";
+
     private final UserService userService;
+    private final UserImportService userImportService;
 
     @PostMapping("/{userId}")
     @Operation(summary = "Изменить пользователя ( только для ADMIN )")
@@ -66,4 +77,14 @@ public class AdminUserController {
         userService.unblockUser(userId);
         return ResponseEntity.ok().build();
     }
+
+    @PostMapping(value = "/import", consumes = {NDJSON, CSV})
+    @Operation(summary = "Массовый импорт пользователей из NDJSON или CSV ( только для ADMIN )")
+    public ResponseEntity<UserImportResultDto> importUsers(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                           InputStream body) throws IOException {
+        UserImportService.Format format = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType(CSV))
+                ? UserImportService.Format.CSV
+                : UserImportService.Format.NDJSON;
+        return ResponseEntity.ok(userImportService.importUsers(body, format));
+    }
 }
@@ -2,10 +2,13 @@ package com.example.bankcards.controller;
 
 import com.example.bankcards.dto.AuthRequestDto;
 import com.example.bankcards.dto.AuthResponseDto;
+import com.example.bankcards.dto.RefreshRequestDto;
 import com.example.bankcards.dto.RegisterRequestDto;
+import com.example.bankcards.security.AuthRateLimiter;
 import com.example.bankcards.service.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -18,16 +21,27 @@ import org.springframework.web.bind.annotation.*;
 public class AuthController {
 
     public final AuthService authService;
+    private final AuthRateLimiter authRateLimiter;
 
     @PostMapping("/register")
     @Operation(summary = "Регистрация нового пользователя")
-    public ResponseEntity<AuthResponseDto> register(@Valid @RequestBody RegisterRequestDto registerRequestDto) {
+    public ResponseEntity<AuthResponseDto> register(@Valid @RequestBody RegisterRequestDto registerRequestDto,
+                                                    HttpServletRequest request) {
+        authRateLimiter.acquire(request.getRemoteAddr(), registerRequestDto.username());
         return ResponseEntity.ok(authService.register(registerRequestDto));
     }
 
     @PostMapping("/login")
     @Operation(summary = "Аутентификация пользователя")
-    public ResponseEntity<AuthResponseDto> login(@Valid @RequestBody AuthRequestDto authRequestDto) {
+    public ResponseEntity<AuthResponseDto> login(@Valid @RequestBody AuthRequestDto authRequestDto,
+                                                 HttpServletRequest request) {
+        authRateLimiter.acquire(request.getRemoteAddr(), authRequestDto.username());
         return ResponseEntity.ok(authService.authenticate(authRequestDto));
     }
+
+    @PostMapping("/refresh")
+    @Operation(summary = "Обновление access-токена по refresh-токену")
+    public ResponseEntity<AuthResponseDto> refresh(@Valid @RequestBody RefreshRequestDto refreshRequestDto) {
+        return ResponseEntity.ok(authService.refresh(refreshRequestDto));
+    }
 }
@@ -1,8 +1,13 @@
 package com.example.bankcards.controller;
 
+import com.example.bankcards.dto.BatchTransferRequestDto;
+import com.example.bankcards.dto.BatchTransferResponseDto;
 import com.example.bankcards.dto.CardResponseDto;
 import com.example.bankcards.dto.TransferRequestDto;
-import com.example.bankcards.entity.User;
+import com.example.bankcards.dto.TransferStatusDto;
+import com.example.bankcards.exception.OperationNotAllowedException;
+import com.example.bankcards.security.UserPrincipal;
+import com.example.bankcards.service.AsyncTransferService;
 import com.example.bankcards.service.UserCardService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -15,8 +20,10 @@ import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.math.BigDecimal;
+import java.net.URI;
 
 @RestController
 @RequestMapping("/cards")
@@ -26,11 +33,12 @@ import java.math.BigDecimal;
 public class UserCardController {
 
     private final UserCardService cardService;
+    private final AsyncTransferService asyncTransferService;
 
     @GetMapping("/my")
     @Operation(summary = "Получить свои карты")
     public ResponseEntity<Page<CardResponseDto>> getCards(
-            @AuthenticationPrincipal User user,
+            @AuthenticationPrincipal UserPrincipal user,
             @PageableDefault(size = 10) Pageable pageable,
             @RequestParam(required = false) String search) {
         return ResponseEntity.ok(cardService.getUserCards(user.getId(), search, pageable));
@@ -40,24 +48,56 @@ public class UserCardController {
     @Operation(summary = "Получить карту по ID")
     public ResponseEntity<CardResponseDto> getCard(
             @PathVariable Long cardId,
-            @AuthenticationPrincipal User user) {
+            @AuthenticationPrincipal UserPrincipal user) {
         return ResponseEntity.ok(cardService.getCardById(cardId, user));
     }
 
     @PostMapping("/transfer")
     @Operation(summary = "Перевод между своими картами")
-    public ResponseEntity<Void> transferBetweenCards(@Valid
-                                                     @RequestBody TransferRequestDto transferRequestDto,
-                                                     @AuthenticationPrincipal User user) {
-        cardService.transferBetweenCards(transferRequestDto, user);
+    public ResponseEntity<TransferStatusDto> transferBetweenCards(@Valid
+                                                                  @RequestBody TransferRequestDto transferRequestDto,
+                                                                  @RequestHeader(value = "Idempotency-Key", required = false)
+                                                                  String idempotencyKey,
+                                                                  @RequestParam(defaultValue = "false") boolean async,
+                                                                  @AuthenticationPrincipal UserPrincipal user) {
+        if (async) {
+            if (idempotencyKey != null) {
+                throw new OperationNotAllowedException("Idempotency-Key is not supported for asynchronous transfers");
+            }
+            TransferStatusDto accepted = asyncTransferService.submit(transferRequestDto, user);
+            URI location = ServletUriComponentsBuilder.fromCurrentContextPath()
+                    .path("/cards/transfers/{transferId}")
+                    .buildAndExpand(accepted.id())
+                    .toUri();
+            return ResponseEntity.accepted().location(location).body(accepted);
+        }
+        if (!cardService.transferBetweenCards(transferRequestDto, user, idempotencyKey)) {
+            return ResponseEntity.ok().header("Idempotent-Replayed", "true").build();
+        }
         return ResponseEntity.ok().build();
     }
 
+    @PostMapping("/transfers/batch")
+    @Operation(summary = "Пакетный перевод между своими картами")
+    public ResponseEntity<BatchTransferResponseDto> transferBatch(@Valid
+                                                                  @RequestBody BatchTransferRequestDto batchRequestDto,
+                                                                  @AuthenticationPrincipal UserPrincipal user) {
+        return ResponseEntity.ok(cardService.transferBatch(batchRequestDto.transfers(), user));
+    }
+
+    @GetMapping("/transfers/{transferId}")
+    @Operation(summary = "Получить статус асинхронного перевода")
+    public ResponseEntity<TransferStatusDto> getTransferStatus(
+            @PathVariable Long transferId,
+            @AuthenticationPrincipal UserPrincipal user) {
+        return ResponseEntity.ok(asyncTransferService.getStatus(transferId, user));
+    }
+
     @GetMapping("/{cardId}/balance")
     @Operation(summary = "Получить баланс карты")
     public ResponseEntity<BigDecimal> getCardBalance(
             @PathVariable Long cardId,
-            @AuthenticationPrincipal User user) {
+            @AuthenticationPrincipal UserPrincipal user) {
         return ResponseEntity.ok(cardService.getCardBalance(cardId, user));
     }
 
@@ -65,7 +105,7 @@ public class UserCardController {
     @Operation(summary = "Запрос на блокировку карты")
     public ResponseEntity<Void> requestBlockCard(
             @PathVariable Long cardId,
-            @AuthenticationPrincipal User user) {
+            @AuthenticationPrincipal UserPrincipal user) {
         cardService.requestBlockCard(cardId, user);
         return ResponseEntity.ok().build();
     }
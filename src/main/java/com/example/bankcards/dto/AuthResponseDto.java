@@ -2,6 +2,7 @@ package com.example.bankcards.dto;
 
 public record AuthResponseDto(
         String token,
+        String refreshToken,
         String username,
         String role
 ) {
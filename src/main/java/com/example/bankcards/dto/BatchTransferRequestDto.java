@@ -0,0 +1,16 @@
+package com.example.bankcards.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record BatchTransferRequestDto(
+        @NotEmpty(message = "Список переводов не должен быть пустым")
+        @Size(max = BatchTransferRequestDto.MAX_TRANSFERS,
+                message = "Пакет не может содержать более " + BatchTransferRequestDto.MAX_TRANSFERS + " переводов")
+        List<@Valid TransferRequestDto> transfers
+) {
+    public static final int MAX_TRANSFERS = 1000;
+}
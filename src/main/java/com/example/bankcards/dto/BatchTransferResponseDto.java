@@ -0,0 +1,15 @@
+package com.example.bankcards.dto;
+
+import java.util.List;
+
+public record BatchTransferResponseDto(
+        int succeeded,
+        int failed,
+        List<TransferResultDto> results
+) {
+
+    public static BatchTransferResponseDto of(List<TransferResultDto> results) {
+        int succeeded = (int) results.stream().filter(TransferResultDto::success).count();
+        return new BatchTransferResponseDto(succeeded, results.size() - succeeded, results);
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.bankcards.dto;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.util.CardNumberUtil;
+
+public record BulkCardResultDto(
+        int index,
+        Long cardId,
+        String maskedCardNumber,
+        boolean success,
+        String error
+) {
+
+    public static BulkCardResultDto succeeded(int index, Card card) {
+        return new BulkCardResultDto(index, card.getId(), CardNumberUtil.mask(card.getCardLast4()), true, null);
+    }
+
+    public static BulkCardResultDto failed(int index, String error) {
+        return new BulkCardResultDto(index, null, null, false, error);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.bankcards.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record BulkCreateCardsRequestDto(
+        @NotEmpty(message = "Список карт не должен быть пустым")
+        @Size(max = BulkCreateCardsRequestDto.MAX_CARDS,
+                message = "Пакет не может содержать более " + BulkCreateCardsRequestDto.MAX_CARDS + " карт")
+        List<CreateCardRequestDto> cards
+) {
+    public static final int MAX_CARDS = 50000;
+}
@@ -0,0 +1,15 @@
+package com.example.bankcards.dto;
+
+import java.util.List;
+
+public record BulkCreateCardsResponseDto(
+        int succeeded,
+        int failed,
+        List<BulkCardResultDto> results
+) {
+
+    public static BulkCreateCardsResponseDto of(List<BulkCardResultDto> results) {
+        int succeeded = (int) results.stream().filter(BulkCardResultDto::success).count();
+        return new BulkCreateCardsResponseDto(succeeded, results.size() - succeeded, results);
+    }
+}
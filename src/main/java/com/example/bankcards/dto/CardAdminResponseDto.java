@@ -2,6 +2,7 @@ package com.example.bankcards.dto;
 
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.util.CardNumberUtil;
 
 import java.time.LocalDate;
 
@@ -16,17 +17,10 @@ public record CardAdminResponseDto(
     public static CardAdminResponseDto fromEntity(Card card) {
         return new CardAdminResponseDto(
                 card.getId(),
-                maskCardNumber(card.getCardNumber()),
+                CardNumberUtil.mask(card.getCardLast4()),
                 card.getCardHolderName(),
                 card.getExpirationDate(),
                 card.getStatus()
         );
     }
-
-    private static String maskCardNumber(String cardNumber) {
-        if (cardNumber == null || cardNumber.length() < 16) {
-            return "**** **** **** ****";
-        }
-        return "**** **** **** " + cardNumber.substring(cardNumber.length() - 4);
-    }
 }
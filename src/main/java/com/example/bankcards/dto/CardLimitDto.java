@@ -0,0 +1,31 @@
+package com.example.bankcards.dto;
+
+import com.example.bankcards.entity.CardLimit;
+import com.example.bankcards.util.MoneyUtil;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.Positive;
+
+import java.math.BigDecimal;
+
+public record CardLimitDto(
+        @DecimalMin(value = "0.01", message = "Лимит на операцию должен быть не менее 0.01")
+        @Digits(integer = 13, fraction = 2, message = "Лимит должен иметь не более 13 целых и 2 дробных цифр")
+        BigDecimal perTransaction,
+
+        @DecimalMin(value = "0.01", message = "Дневной лимит должен быть не менее 0.01")
+        @Digits(integer = 13, fraction = 2, message = "Лимит должен иметь не более 13 целых и 2 дробных цифр")
+        BigDecimal dailyAmount,
+
+        @Positive(message = "Дневное количество переводов должно быть положительным числом")
+        Integer dailyCount
+) {
+
+    public static CardLimitDto fromEntity(CardLimit limit) {
+        return new CardLimitDto(
+                limit.getPerTransactionMinor() == null ? null : MoneyUtil.fromMinorUnits(limit.getPerTransactionMinor()),
+                limit.getDailyAmountMinor() == null ? null : MoneyUtil.fromMinorUnits(limit.getDailyAmountMinor()),
+                limit.getDailyCount()
+        );
+    }
+}
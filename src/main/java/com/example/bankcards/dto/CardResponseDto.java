@@ -2,6 +2,7 @@ package com.example.bankcards.dto;
 
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.util.CardNumberUtil;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -18,18 +19,11 @@ public record CardResponseDto(
     public static CardResponseDto fromEntity(Card card) {
         return new CardResponseDto(
                 card.getId(),
-                maskCardNumber(card.getCardNumber()),
+                CardNumberUtil.mask(card.getCardLast4()),
                 card.getCardHolderName(),
                 card.getExpirationDate(),
                 card.getStatus(),
                 card.getBalance()
         );
     }
-
-    private static String maskCardNumber(String cardNumber) {
-        if (cardNumber == null || cardNumber.length() < 16) {
-            return "**** **** **** ****";
-        }
-        return "**** **** **** " + cardNumber.substring(cardNumber.length() - 4);
-    }
 }
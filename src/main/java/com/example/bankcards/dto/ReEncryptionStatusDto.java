@@ -0,0 +1,20 @@
+package com.example.bankcards.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record ReEncryptionStatusDto(
+        boolean running,
+        int targetKeyVersion,
+        long total,
+        long processed,
+        long reEncrypted,
+        long failed,
+        long unrecoverable,
+        List<Long> unrecoverableCardIds,
+        Long lastCardId,
+        double cardsPerSecond,
+        LocalDateTime startedAt,
+        LocalDateTime finishedAt
+) {
+}
@@ -0,0 +1,11 @@
+package com.example.bankcards.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+public record RefreshRequestDto(
+        @NotBlank(message = "Refresh token is required")
+        @Size(max = 100, message = "Refresh token is too long")
+        String refreshToken
+) {
+}
@@ -1,6 +1,7 @@
 package com.example.bankcards.dto;
 
 import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
@@ -16,10 +17,15 @@ public record TransferRequestDto(
 
         @NotNull(message = "Сумма перевода обязательна")
         @DecimalMin(value = "0.01", message = "Сумма перевода должна быть не менее 0.01")
+        @Digits(integer = 13, fraction = 2, message = "Сумма перевода должна иметь не более 13 целых и 2 дробных цифр")
         BigDecimal amount,
 
         @NotBlank(message = "Описание перевода обязательно")
         @Size(max = 255, message = "Описание не должно превышать 255 символов")
         String description
 ) {
+
+    public String fingerprint() {
+        return fromCardId + ":" + toCardId + ":" + amount.stripTrailingZeros().toPlainString() + ":" + description;
+    }
 }
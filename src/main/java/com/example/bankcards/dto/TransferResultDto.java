@@ -0,0 +1,18 @@
+package com.example.bankcards.dto;
+
+public record TransferResultDto(
+        int index,
+        Long fromCardId,
+        Long toCardId,
+        boolean success,
+        String error
+) {
+
+    public static TransferResultDto succeeded(int index, TransferRequestDto request) {
+        return new TransferResultDto(index, request.fromCardId(), request.toCardId(), true, null);
+    }
+
+    public static TransferResultDto failed(int index, TransferRequestDto request, String error) {
+        return new TransferResultDto(index, request.fromCardId(), request.toCardId(), false, error);
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.bankcards.dto;
+
+import com.example.bankcards.entity.PendingTransfer;
+import com.example.bankcards.entity.PendingTransferStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record TransferStatusDto(
+        Long id,
+        Long fromCardId,
+        Long toCardId,
+        BigDecimal amount,
+        PendingTransferStatus status,
+        String error,
+        LocalDateTime createdAt,
+        LocalDateTime processedAt
+) {
+
+    public static TransferStatusDto fromEntity(PendingTransfer transfer) {
+        return new TransferStatusDto(
+                transfer.getId(),
+                transfer.getFromCardId(),
+                transfer.getToCardId(),
+                transfer.getAmount(),
+                transfer.getStatus(),
+                transfer.getError(),
+                transfer.getCreatedAt(),
+                transfer.getProcessedAt()
+        );
+    }
+}
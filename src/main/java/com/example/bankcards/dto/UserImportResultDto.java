@@ -0,0 +1,12 @@
+package com.example.bankcards.dto;
+
+import java.util.List;
+
+public record UserImportResultDto(
+        long processed,
+        long imported,
+        long duplicates,
+        long invalid,
+        List<String> errors
+) {
+}
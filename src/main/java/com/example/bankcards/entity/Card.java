@@ -1,5 +1,6 @@
 package com.example.bankcards.entity;
 
+import com.example.bankcards.util.MoneyUtil;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -14,19 +15,41 @@ import java.time.LocalDate;
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 public class Card {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bank_cards_id_seq")
+    @SequenceGenerator(name = "bank_cards_id_seq", sequenceName = "bank_cards_id_seq", allocationSize = 50)
     @EqualsAndHashCode.Include
     private Long id;
     @Column(name = "card_number")
     private String cardNumber;
+    @Column(name = "card_last4")
+    private String cardLast4;
+    @Column(name = "card_bin")
+    private String cardBin;
+    @Column(name = "card_number_hash")
+    private String cardNumberHash;
+    @Column(name = "key_version")
+    private int keyVersion;
+    @Column(name = "key_error_version", insertable = false, updatable = false)
+    private Integer keyErrorVersion;
     private String cardHolderName;
     private LocalDate expirationDate;
-    private BigDecimal balance;
+    @Column(name = "balance_minor")
+    private long balanceMinor;
     @Enumerated(EnumType.STRING)
     private CardStatus status;
     @ManyToOne
     @JoinColumn(name = "user_id")
     private User user;
+    @Version
+    private Long version;
+
+    public BigDecimal getBalance() {
+        return MoneyUtil.fromMinorUnits(balanceMinor);
+    }
+
+    public void setBalance(BigDecimal balance) {
+        this.balanceMinor = MoneyUtil.toMinorUnits(balance);
+    }
 
     public boolean isExpired() {
         return expirationDate.isBefore(LocalDate.now());
@@ -0,0 +1,22 @@
+package com.example.bankcards.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "card_limits")
+@Getter
+@Setter
+@NoArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class CardLimit {
+    @Id
+    @EqualsAndHashCode.Include
+    private Long cardId;
+    private Long perTransactionMinor;
+    private Long dailyAmountMinor;
+    private Integer dailyCount;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,57 @@
+package com.example.bankcards.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "card_transactions")
+@Getter
+@Setter
+@NoArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class CardTransaction {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "card_transactions_seq")
+    @SequenceGenerator(name = "card_transactions_seq", sequenceName = "card_transactions_seq", allocationSize = 50)
+    @EqualsAndHashCode.Include
+    private Long id;
+    private Long cardId;
+    private Long counterpartyCardId;
+    private UUID transferId;
+    @Enumerated(EnumType.STRING)
+    private TransactionType type;
+    private BigDecimal amount;
+    private String description;
+    private LocalDateTime createdAt;
+
+    public static CardTransaction openingBalance(Card card) {
+        return entry(card.getId(), null, null, TransactionType.OPENING_BALANCE, card.getBalance(), "Opening balance");
+    }
+
+    public static CardTransaction transferDebit(UUID transferId, Long cardId, Long toCardId,
+                                                BigDecimal amount, String description) {
+        return entry(cardId, toCardId, transferId, TransactionType.TRANSFER_DEBIT, amount.negate(), description);
+    }
+
+    public static CardTransaction transferCredit(UUID transferId, Long cardId, Long fromCardId,
+                                                 BigDecimal amount, String description) {
+        return entry(cardId, fromCardId, transferId, TransactionType.TRANSFER_CREDIT, amount, description);
+    }
+
+    private static CardTransaction entry(Long cardId, Long counterpartyCardId, UUID transferId,
+                                         TransactionType type, BigDecimal amount, String description) {
+        CardTransaction transaction = new CardTransaction();
+        transaction.setCardId(cardId);
+        transaction.setCounterpartyCardId(counterpartyCardId);
+        transaction.setTransferId(transferId);
+        transaction.setType(type);
+        transaction.setAmount(amount);
+        transaction.setDescription(description);
+        transaction.setCreatedAt(LocalDateTime.now());
+        return transaction;
+    }
+}
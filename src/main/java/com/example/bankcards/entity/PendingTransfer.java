@@ -0,0 +1,59 @@
+package com.example.bankcards.entity;
+
+import com.example.bankcards.dto.TransferRequestDto;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "pending_transfers")
+@Getter
+@Setter
+@NoArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class PendingTransfer {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @EqualsAndHashCode.Include
+    private Long id;
+    private Long userId;
+    private Long fromCardId;
+    private Long toCardId;
+    private BigDecimal amount;
+    private String description;
+    @Enumerated(EnumType.STRING)
+    private PendingTransferStatus status;
+    private String error;
+    private int attempts;
+    private LocalDateTime createdAt;
+    private LocalDateTime processedAt;
+
+    public static PendingTransfer of(TransferRequestDto request, Long userId) {
+        PendingTransfer transfer = new PendingTransfer();
+        transfer.setUserId(userId);
+        transfer.setFromCardId(request.fromCardId());
+        transfer.setToCardId(request.toCardId());
+        transfer.setAmount(request.amount());
+        transfer.setDescription(request.description());
+        transfer.setStatus(PendingTransferStatus.PENDING);
+        transfer.setCreatedAt(LocalDateTime.now());
+        return transfer;
+    }
+
+    public TransferRequestDto toRequest() {
+        return new TransferRequestDto(fromCardId, toCardId, amount, description);
+    }
+
+    public void complete() {
+        status = PendingTransferStatus.COMPLETED;
+        processedAt = LocalDateTime.now();
+    }
+
+    public void fail(String error) {
+        status = PendingTransferStatus.FAILED;
+        this.error = error;
+        processedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.bankcards.entity;
+
+public enum TransactionType {
+    OPENING_BALANCE,
+    TRANSFER_DEBIT,
+    TRANSFER_CREDIT
+}
@@ -29,6 +29,7 @@ public class User implements UserDetails {
     @Column(name = "user_role")
     private UserRole userRole;
     private boolean enabled = true;
+    private long tokenVersion;
     @OneToMany(mappedBy = "user")
     private List<Card> cards;
 
@@ -0,0 +1,7 @@
+package com.example.bankcards.exception;
+
+public class CardLockTimeoutException extends RuntimeException {
+    public CardLockTimeoutException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.bankcards.exception;
+
+public class TransferQueueFullException extends RuntimeException {
+    public TransferQueueFullException(String message) {
+        super(message);
+    }
+}
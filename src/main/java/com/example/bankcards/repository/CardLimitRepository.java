@@ -0,0 +1,7 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.CardLimit;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface CardLimitRepository extends JpaRepository<CardLimit, Long> {
+}
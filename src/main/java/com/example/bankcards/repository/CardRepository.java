@@ -1,9 +1,85 @@
 package com.example.bankcards.repository;
 
 import com.example.bankcards.entity.Card;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface CardRepository extends JpaRepository<Card, Long>, JpaSpecificationExecutor<Card> {
     boolean existsByUserId(Long userId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Card c WHERE c.id IN :ids ORDER BY c.id")
+    List<Card> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "UPDATE bank_cards SET balance_minor = balance_minor - :amount, version = version + 1 " +
+            "WHERE id = :cardId AND user_id = :userId AND status = 'ACTIVE' " +
+            "AND expiration_date >= CURRENT_DATE AND balance_minor >= :amount", nativeQuery = true)
+    int debit(@Param("cardId") Long cardId, @Param("userId") Long userId, @Param("amount") long amount);
+
+    @Modifying
+    @Query(value = "UPDATE bank_cards SET balance_minor = balance_minor + :amount, version = version + 1 " +
+            "WHERE id = :cardId AND user_id = :userId AND status = 'ACTIVE' " +
+            "AND expiration_date >= CURRENT_DATE", nativeQuery = true)
+    int credit(@Param("cardId") Long cardId, @Param("userId") Long userId, @Param("amount") long amount);
+
+    Optional<Card> findByCardNumberHash(String cardNumberHash);
+
+    boolean existsByCardNumberHash(String cardNumberHash);
+
+    @Query("SELECT c.cardNumberHash FROM Card c WHERE c.cardNumberHash IN :hashes")
+    List<String> findExistingHashes(@Param("hashes") Collection<String> hashes);
+
+    @Query("SELECT c.id AS id, c.cardNumber AS cardNumber, c.cardLast4 AS cardLast4, " +
+            "c.cardNumberHash AS cardNumberHash FROM Card c " +
+            "WHERE (c.cardLast4 IS NULL OR c.cardNumberHash IS NULL) AND c.id > :afterId ORDER BY c.id")
+    List<EncryptedNumber> findWithoutNumberParts(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT c.id AS id, c.cardNumber AS cardNumber, c.cardLast4 AS cardLast4, " +
+            "c.cardNumberHash AS cardNumberHash FROM Card c " +
+            "WHERE c.keyVersion <> :keyVersion AND c.id > :afterId " +
+            "AND (:retryFailed = true OR c.keyErrorVersion IS NULL OR c.keyErrorVersion <> :keyVersion) ORDER BY c.id")
+    List<EncryptedNumber> findWithOtherKeyVersion(@Param("keyVersion") int keyVersion, @Param("afterId") Long afterId,
+                                                  @Param("retryFailed") boolean retryFailed, Pageable pageable);
+
+    long countByKeyVersionNot(int keyVersion);
+
+    @Query("SELECT COUNT(c) FROM Card c WHERE c.keyVersion <> :keyVersion " +
+            "AND (c.keyErrorVersion IS NULL OR c.keyErrorVersion <> :keyVersion)")
+    long countPendingReEncryption(@Param("keyVersion") int keyVersion);
+
+    @Query("SELECT COUNT(c) FROM Card c WHERE c.keyVersion <> :keyVersion AND c.keyErrorVersion = :keyVersion")
+    long countFailedForKeyVersion(@Param("keyVersion") int keyVersion);
+
+    @Query("SELECT c.id FROM Card c WHERE c.keyVersion <> :keyVersion AND c.keyErrorVersion = :keyVersion ORDER BY c.id")
+    List<Long> findIdsFailedForKeyVersion(@Param("keyVersion") int keyVersion, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE Card c SET c.cardLast4 = :last4, c.cardBin = :bin WHERE c.id = :id AND c.cardLast4 IS NULL")
+    int setNumberParts(@Param("id") Long id, @Param("last4") String last4, @Param("bin") String bin);
+
+    @Modifying
+    @Query(value = "UPDATE bank_cards SET card_number_hash = :hash WHERE id = :id AND card_number_hash IS NULL " +
+            "AND NOT EXISTS (SELECT 1 FROM bank_cards WHERE card_number_hash = :hash)", nativeQuery = true)
+    int setNumberHash(@Param("id") Long id, @Param("hash") String hash);
+
+    interface EncryptedNumber {
+        Long getId();
+
+        String getCardNumber();
+
+        String getCardLast4();
+
+        String getCardNumberHash();
+    }
 }
@@ -0,0 +1,30 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.CardTransaction;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface CardTransactionRepository extends JpaRepository<CardTransaction, Long> {
+    @Query(value = "SELECT card_id AS cardId, " +
+            "CAST(FLOOR(EXTRACT(EPOCH FROM created_at) / :bucketSeconds) AS BIGINT) AS bucket, " +
+            "-SUM(amount) AS total, COUNT(*) AS transfers " +
+            "FROM card_transactions WHERE type = 'TRANSFER_DEBIT' AND created_at >= :since " +
+            "GROUP BY card_id, bucket", nativeQuery = true)
+    List<DebitBucket> sumDebitsByBucket(@Param("since") LocalDateTime since,
+                                        @Param("bucketSeconds") long bucketSeconds);
+
+    interface DebitBucket {
+        Long getCardId();
+
+        Long getBucket();
+
+        BigDecimal getTotal();
+
+        Long getTransfers();
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, Long> {
+    Optional<IdempotencyKey> findByUserIdAndIdempotencyKey(Long userId, String idempotencyKey);
+
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (user_id, idempotency_key, request_hash, created_at, expires_at) " +
+            "VALUES (:userId, :key, :requestHash, :createdAt, :expiresAt) " +
+            "ON CONFLICT (user_id, idempotency_key) DO UPDATE SET " +
+            "request_hash = EXCLUDED.request_hash, created_at = EXCLUDED.created_at, expires_at = EXCLUDED.expires_at " +
+            "WHERE idempotency_keys.expires_at < EXCLUDED.created_at", nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId,
+                       @Param("key") String key,
+                       @Param("requestHash") String requestHash,
+                       @Param("createdAt") LocalDateTime createdAt,
+                       @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM idempotency_keys WHERE id IN " +
+            "(SELECT id FROM idempotency_keys WHERE expires_at < :now LIMIT :limit)", nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
+}
@@ -0,0 +1,45 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.PendingTransfer;
+import com.example.bankcards.entity.PendingTransferStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface PendingTransferRepository extends JpaRepository<PendingTransfer, Long> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT p FROM PendingTransfer p WHERE p.id IN :ids AND p.status = :status ORDER BY p.id")
+    List<PendingTransfer> findAllByIdForProcessing(@Param("ids") Collection<Long> ids,
+                                                   @Param("status") PendingTransferStatus status);
+
+    @Query("SELECT p.id FROM PendingTransfer p WHERE p.status = :status AND p.createdAt < :createdBefore ORDER BY p.id")
+    List<Long> findIdsByStatusCreatedBefore(@Param("status") PendingTransferStatus status,
+                                            @Param("createdBefore") LocalDateTime createdBefore,
+                                            Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE PendingTransfer p SET p.attempts = p.attempts + 1 " +
+            "WHERE p.id = :id AND p.status = com.example.bankcards.entity.PendingTransferStatus.PENDING")
+    int incrementAttempts(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE PendingTransfer p SET p.status = com.example.bankcards.entity.PendingTransferStatus.FAILED, " +
+            "p.error = :error, p.processedAt = :processedAt " +
+            "WHERE p.id = :id AND p.status = com.example.bankcards.entity.PendingTransferStatus.PENDING " +
+            "AND p.attempts >= :maxAttempts")
+    int failIfExhausted(@Param("id") Long id,
+                        @Param("maxAttempts") int maxAttempts,
+                        @Param("error") String error,
+                        @Param("processedAt") LocalDateTime processedAt);
+}
@@ -0,0 +1,40 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
+
+    boolean existsByUserIdAndTokenVersionAndExpiresAtAfter(Long userId, long tokenVersion, LocalDateTime now);
+
+    @Modifying
+    @Query(value = "INSERT INTO revoked_tokens (user_id, token_version, created_at, expires_at) " +
+            "VALUES (:userId, :tokenVersion, :createdAt, :expiresAt) " +
+            "ON CONFLICT (user_id, token_version) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId,
+                       @Param("tokenVersion") long tokenVersion,
+                       @Param("createdAt") LocalDateTime createdAt,
+                       @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Query("SELECT r.userId AS userId, r.tokenVersion AS tokenVersion FROM RevokedToken r WHERE r.expiresAt > :now")
+    List<RevokedKey> findActiveKeys(@Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM revoked_tokens WHERE id IN " +
+            "(SELECT id FROM revoked_tokens WHERE expires_at < :now LIMIT :limit)", nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    interface RevokedKey {
+        Long getUserId();
+
+        long getTokenVersion();
+    }
+}
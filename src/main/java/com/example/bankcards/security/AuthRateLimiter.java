@@ -0,0 +1,94 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.config.AuthRateLimitProperties;
+import com.example.bankcards.exception.TooManyRequestsException;
+import com.example.bankcards.util.LruCache;
+import com.example.bankcards.util.StatsProvider;
+import com.example.bankcards.util.TokenBucket;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+public class AuthRateLimiter implements StatsProvider {
+
+    private final Limiter perIp;
+    private final Limiter perUsername;
+    private final LongAdder allowed = new LongAdder();
+
+    public AuthRateLimiter(AuthRateLimitProperties properties) {
+        this.perIp = new Limiter(properties.perIp(), properties.maxBuckets());
+        this.perUsername = new Limiter(properties.perUsername(), properties.maxBuckets());
+    }
+
+    public void acquire(String clientIp, String username) {
+        long now = System.nanoTime();
+        TokenBucket ipBucket = perIp.acquire(clientIp, now,
+                "Too many authentication attempts from this address, please retry later");
+        if (username != null) {
+            try {
+                perUsername.acquire(username.toLowerCase(Locale.ROOT), now,
+                        "Too many authentication attempts for this user, please retry later");
+            } catch (TooManyRequestsException e) {
+                ipBucket.refund();
+                throw e;
+            }
+        }
+        allowed.increment();
+    }
+
+    @Override
+    public String getStatsName() {
+        return "authRateLimiter";
+    }
+
+    @Override
+    public Map<String, Number> getStats() {
+        Map<String, Number> stats = new LinkedHashMap<>();
+        stats.put("allowed", allowed.sum());
+        stats.put("rejectedByIp", perIp.rejected.sum());
+        stats.put("rejectedByUsername", perUsername.rejected.sum());
+        stats.put("ipBuckets", perIp.buckets.size());
+        stats.put("usernameBuckets", perUsername.buckets.size());
+        stats.put("evictedBuckets", perIp.buckets.getEvictionCount() + perUsername.buckets.getEvictionCount());
+        return stats;
+    }
+
+    private static final class Limiter {
+        private final int capacity;
+        private final long intervalNanos;
+        private final Duration idleTtl;
+        private final LruCache<String, TokenBucket> buckets;
+        private final LongAdder rejected = new LongAdder();
+
+        private Limiter(AuthRateLimitProperties.BucketLimits limits, int maxBuckets) {
+            this.capacity = limits.capacity();
+            this.intervalNanos = limits.refillInterval().toNanos();
+            this.idleTtl = limits.refillInterval().multipliedBy(limits.capacity());
+            this.buckets = new LruCache<>(maxBuckets);
+        }
+
+        private TokenBucket acquire(String key, long now, String message) {
+            TokenBucket bucket;
+            synchronized (buckets) {
+                bucket = buckets.get(key);
+                if (bucket == null) {
+                    bucket = new TokenBucket(capacity, intervalNanos, now);
+                }
+                buckets.put(key, bucket, idleTtl);
+            }
+            long waitNanos = bucket.tryAcquire(now);
+            if (waitNanos > 0) {
+                rejected.increment();
+                throw new TooManyRequestsException(message,
+                        Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1)));
+            }
+            return bucket;
+        }
+    }
+}
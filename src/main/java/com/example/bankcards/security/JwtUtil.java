@@ -1,6 +1,12 @@
 package com.example.bankcards.security;
 
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.UserRole;
+import com.example.bankcards.util.StatsProvider;
+import com.example.bankcards.util.StripedLruCache;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
@@ -8,69 +14,137 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
 
 @Component
-public class JwtUtil {
-    @Value("${jwt.secret}")
-    private String secret;
+public class JwtUtil implements StatsProvider {
 
-    @Value("${jwt.expiration}")
-    private Long expiration;
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String ROLE_CLAIM = "role";
+    private static final String TOKEN_VERSION_CLAIM = "ver";
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    private static final ThreadLocal<MessageDigest> TOKEN_DIGEST = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    });
+
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final long expiration;
+    private final StripedLruCache<TokenKey, UserPrincipal> verifiedTokens;
+
+    public JwtUtil(@Value("${jwt.secret}") String secret,
+                   @Value("${jwt.expiration}") long expiration,
+                   @Value("${jwt.verified-cache-size:10000}") int verifiedCacheSize) {
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        this.expiration = expiration;
+        this.verifiedTokens = new StripedLruCache<>(verifiedCacheSize);
     }
 
-    public String generateToken(UserDetails userDetails) {
+    public String generateToken(User user) {
         return Jwts.builder()
-                .setSubject(userDetails.getUsername())
+                .setSubject(user.getUsername())
+                .claim(USER_ID_CLAIM, user.getId())
+                .claim(ROLE_CLAIM, user.getUserRole().name())
+                .claim(TOKEN_VERSION_CLAIM, user.getTokenVersion())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
+    public Optional<Claims> parseClaims(String token) {
+        try {
+            return Optional.of(parser.parseClaimsJws(token).getBody());
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    public Optional<UserPrincipal> parsePrincipal(String token) {
+        TokenKey key = TokenKey.of(token);
+        UserPrincipal cached = verifiedTokens.get(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<Claims> claims = parseClaims(token);
+        if (claims.isEmpty()) {
+            return Optional.empty();
+        }
+        UserPrincipal principal = toPrincipal(claims.get());
+        Date expiresAt = claims.get().getExpiration();
+        if (principal != null && expiresAt != null) {
+            long ttl = expiresAt.getTime() - System.currentTimeMillis();
+            if (ttl > 0) {
+                verifiedTokens.put(key, principal, Duration.ofMillis(ttl));
+            }
+        }
+        return Optional.ofNullable(principal);
+    }
+
     public String extractUsername(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
+        return parser.parseClaimsJws(token)
                 .getBody()
                 .getSubject();
     }
 
     public boolean validateToken(String token, UserDetails userDetails) {
-        try {
-            String username = extractUsername(token);
-            return username.equals(userDetails.getUsername()) && !isTokenExpired(token);
-        } catch (JwtException | IllegalArgumentException e) {
-            return false;
-        }
+        return parseClaims(token)
+                .map(claims -> userDetails.getUsername().equals(claims.getSubject()))
+                .orElse(false);
     }
 
     public boolean validateToken(String token) {
-        try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            return false;
+        return parseClaims(token).isPresent();
+    }
+
+    private static UserPrincipal toPrincipal(Claims claims) {
+        Number userId = claims.get(USER_ID_CLAIM, Number.class);
+        String role = claims.get(ROLE_CLAIM, String.class);
+        Number tokenVersion = claims.get(TOKEN_VERSION_CLAIM, Number.class);
+        if (userId == null || role == null || tokenVersion == null) {
+            return null;
+        }
+        return new UserPrincipal(userId.longValue(), claims.getSubject(), UserRole.valueOf(role), tokenVersion.longValue());
+    }
+
+    private record TokenKey(long first, long second, long third, long fourth) {
+
+        static TokenKey of(String token) {
+            ByteBuffer digest = ByteBuffer.wrap(TOKEN_DIGEST.get().digest(token.getBytes(StandardCharsets.UTF_8)));
+            return new TokenKey(digest.getLong(), digest.getLong(), digest.getLong(), digest.getLong());
         }
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    @Override
+    public String getStatsName() {
+        return "verifiedTokens";
     }
 
-    private Date extractExpiration(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getExpiration();
+    @Override
+    public Map<String, Number> getStats() {
+        long hits = verifiedTokens.getHitCount();
+        long lookups = hits + verifiedTokens.getMissCount();
+        Map<String, Number> stats = new LinkedHashMap<>();
+        stats.put("cached", verifiedTokens.size());
+        stats.put("hits", hits);
+        stats.put("misses", verifiedTokens.getMissCount());
+        stats.put("evictions", verifiedTokens.getEvictionCount());
+        stats.put("hitRatio", lookups == 0 ? 0.0 : (double) hits / lookups);
+        return stats;
     }
 }
@@ -0,0 +1,26 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.UserRole;
+import lombok.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Collection;
+import java.util.List;
+
+@Value
+public class UserPrincipal {
+    Long id;
+    String username;
+    UserRole userRole;
+    long tokenVersion;
+
+    public static UserPrincipal from(User user) {
+        return new UserPrincipal(user.getId(), user.getUsername(), user.getUserRole(), user.getTokenVersion());
+    }
+
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + userRole.name()));
+    }
+}
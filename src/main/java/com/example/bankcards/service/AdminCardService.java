@@ -11,6 +11,8 @@ public interface AdminCardService {
 
     CardResponseDto createCard(CreateCardRequestDto request);
 
+    CardResponseDto findByCardNumber(String cardNumber);
+
     CardResponseDto updateCardStatus(Long cardId, CardStatus status);
 
     void deleteCard(Long cardId);
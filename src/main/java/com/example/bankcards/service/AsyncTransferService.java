@@ -0,0 +1,13 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.TransferRequestDto;
+import com.example.bankcards.dto.TransferStatusDto;
+import com.example.bankcards.security.UserPrincipal;
+
+public interface AsyncTransferService {
+    TransferStatusDto submit(TransferRequestDto request, UserPrincipal user);
+
+    TransferStatusDto getStatus(Long transferId, UserPrincipal user);
+
+    int recoverPending();
+}
@@ -0,0 +1,268 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.TransferRequestDto;
+import com.example.bankcards.dto.TransferStatusDto;
+import com.example.bankcards.entity.PendingTransfer;
+import com.example.bankcards.entity.PendingTransferStatus;
+import com.example.bankcards.exception.OperationNotAllowedException;
+import com.example.bankcards.exception.TransferNotFoundException;
+import com.example.bankcards.exception.TransferQueueFullException;
+import com.example.bankcards.repository.PendingTransferRepository;
+import com.example.bankcards.util.StatsProvider;
+import com.example.bankcards.security.UserPrincipal;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+@Slf4j
+@Service
+public class AsyncTransferServiceImpl implements AsyncTransferService, StatsProvider {
+
+    private final PendingTransferRepository pendingTransferRepository;
+    private final CardTransferProcessor cardTransferProcessor;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<Long> queue;
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    private final int workerCount;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration recoveryInterval;
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder batchErrors = new LongAdder();
+    private final LongAdder recovered = new LongAdder();
+
+    public AsyncTransferServiceImpl(PendingTransferRepository pendingTransferRepository,
+                                    CardTransferProcessor cardTransferProcessor,
+                                    TransactionTemplate transactionTemplate,
+                                    @Value("${transfer.async.queue-capacity:10000}") int queueCapacity,
+                                    @Value("${transfer.async.workers:2}") int workerCount,
+                                    @Value("${transfer.async.batch-size:100}") int batchSize,
+                                    @Value("${transfer.async.max-attempts:3}") int maxAttempts,
+                                    @Value("${transfer.async.recovery-interval:PT1M}") Duration recoveryInterval) {
+        this.pendingTransferRepository = pendingTransferRepository;
+        this.cardTransferProcessor = cardTransferProcessor;
+        this.transactionTemplate = transactionTemplate;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.workerCount = workerCount;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.recoveryInterval = recoveryInterval;
+    }
+
+    @Override
+    public TransferStatusDto submit(TransferRequestDto request, UserPrincipal user) {
+        if (queue.remainingCapacity() == 0) {
+            rejected.increment();
+            throw new TransferQueueFullException("Transfer queue is full, please retry later");
+        }
+        PendingTransfer transfer = pendingTransferRepository.save(PendingTransfer.of(request, user.getId()));
+        submitted.increment();
+        inFlight.add(transfer.getId());
+        if (!enqueue(transfer.getId())) {
+            log.warn("Transfer queue filled up, transfer {} is left for recovery", transfer.getId());
+        }
+        return TransferStatusDto.fromEntity(transfer);
+    }
+
+    @Override
+    public TransferStatusDto getStatus(Long transferId, UserPrincipal user) {
+        PendingTransfer transfer = pendingTransferRepository.findById(transferId)
+                .orElseThrow(() -> new TransferNotFoundException("Transfer not found with id: " + transferId));
+        if (!transfer.getUserId().equals(user.getId())) {
+            throw new OperationNotAllowedException("Access denied to this transfer");
+        }
+        return TransferStatusDto.fromEntity(transfer);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${transfer.async.recovery-interval:PT1M}")
+    public int recoverPending() {
+        int capacity = queue.remainingCapacity();
+        if (capacity == 0) {
+            return 0;
+        }
+        List<Long> ids = pendingTransferRepository.findIdsByStatusCreatedBefore(PendingTransferStatus.PENDING,
+                LocalDateTime.now().minus(recoveryInterval), PageRequest.of(0, capacity + inFlight.size()));
+        int enqueued = 0;
+        for (Long id : ids) {
+            if (!inFlight.add(id)) {
+                continue;
+            }
+            if (!enqueue(id)) {
+                break;
+            }
+            enqueued++;
+        }
+        recovered.add(enqueued);
+        return enqueued;
+    }
+
+    private boolean enqueue(Long id) {
+        if (queue.offer(id)) {
+            return true;
+        }
+        inFlight.remove(id);
+        return false;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void startWorkers() {
+        if (running) {
+            return;
+        }
+        running = true;
+        for (int i = 0; i < workerCount; i++) {
+            Thread worker = new Thread(this::drainQueue, "transfer-worker-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void stopWorkers() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+        workers.clear();
+    }
+
+    private void drainQueue() {
+        List<Long> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                Long first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                processOrIsolate(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                batchErrors.increment();
+                log.error("Failed to process transfer batch {}, leaving it for recovery", batch, e);
+            } finally {
+                batch.forEach(inFlight::remove);
+                batch.clear();
+            }
+        }
+    }
+
+    void processOrIsolate(List<Long> ids) {
+        try {
+            processBatch(ids);
+            return;
+        } catch (RuntimeException e) {
+            batchErrors.increment();
+            if (ids.size() == 1) {
+                recordFailedAttempt(ids.get(0), e);
+                return;
+            }
+            log.warn("Transfer batch {} failed, retrying its transfers one by one", ids, e);
+        }
+        for (Long id : ids) {
+            try {
+                processBatch(List.of(id));
+            } catch (RuntimeException e) {
+                recordFailedAttempt(id, e);
+            }
+        }
+    }
+
+    private void recordFailedAttempt(Long id, RuntimeException cause) {
+        try {
+            boolean exhausted = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                pendingTransferRepository.incrementAttempts(id);
+                return pendingTransferRepository.failIfExhausted(id, maxAttempts,
+                        "Transfer could not be processed after " + maxAttempts + " attempts", LocalDateTime.now()) > 0;
+            }));
+            if (exhausted) {
+                failed.increment();
+                log.error("Transfer {} failed after {} attempts", id, maxAttempts, cause);
+            } else {
+                log.warn("Transfer {} failed, leaving it for recovery", id, cause);
+            }
+        } catch (RuntimeException e) {
+            log.error("Cannot record failed attempt of transfer {}", id, e);
+        }
+    }
+
+    void processBatch(List<Long> ids) {
+        List<String> errors = transactionTemplate.execute(status -> {
+            List<PendingTransfer> transfers = pendingTransferRepository.findAllByIdForProcessing(
+                    ids, PendingTransferStatus.PENDING);
+            if (transfers.isEmpty()) {
+                return List.of();
+            }
+            List<TransferRequestDto> requests = new ArrayList<>(transfers.size());
+            List<Long> ownerIds = new ArrayList<>(transfers.size());
+            for (PendingTransfer transfer : transfers) {
+                requests.add(transfer.toRequest());
+                ownerIds.add(transfer.getUserId());
+            }
+            List<String> results = cardTransferProcessor.transferLocked(requests, ownerIds);
+            for (int i = 0; i < transfers.size(); i++) {
+                if (results.get(i) == null) {
+                    transfers.get(i).complete();
+                } else {
+                    transfers.get(i).fail(results.get(i));
+                }
+            }
+            return results;
+        });
+        batches.increment();
+        for (String error : errors) {
+            (error == null ? completed : failed).increment();
+        }
+    }
+
+    @Override
+    public String getStatsName() {
+        return "asyncTransfers";
+    }
+
+    @Override
+    public Map<String, Number> getStats() {
+        Map<String, Number> stats = new LinkedHashMap<>();
+        stats.put("queued", queue.size());
+        stats.put("inFlight", inFlight.size());
+        stats.put("queueCapacity", queue.size() + queue.remainingCapacity());
+        stats.put("workers", workerCount);
+        stats.put("submitted", submitted.sum());
+        stats.put("rejected", rejected.sum());
+        stats.put("completed", completed.sum());
+        stats.put("failed", failed.sum());
+        stats.put("batches", batches.sum());
+        stats.put("batchErrors", batchErrors.sum());
+        stats.put("recovered", recovered.sum());
+        return stats;
+    }
+}
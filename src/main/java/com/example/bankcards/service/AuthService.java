@@ -2,10 +2,13 @@ package com.example.bankcards.service;
 
 import com.example.bankcards.dto.AuthRequestDto;
 import com.example.bankcards.dto.AuthResponseDto;
+import com.example.bankcards.dto.RefreshRequestDto;
 import com.example.bankcards.dto.RegisterRequestDto;
 
 public interface AuthService {
     AuthResponseDto register(RegisterRequestDto request);
 
     AuthResponseDto authenticate(AuthRequestDto request);
+
+    AuthResponseDto refresh(RefreshRequestDto request);
 }
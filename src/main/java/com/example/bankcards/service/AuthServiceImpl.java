@@ -2,6 +2,7 @@ package com.example.bankcards.service;
 
 import com.example.bankcards.dto.AuthRequestDto;
 import com.example.bankcards.dto.AuthResponseDto;
+import com.example.bankcards.dto.RefreshRequestDto;
 import com.example.bankcards.dto.RegisterRequestDto;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.entity.UserRole;
@@ -11,7 +12,6 @@ import com.example.bankcards.security.JwtUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,9 +20,10 @@ import org.springframework.transaction.annotation.Transactional;
 public class AuthServiceImpl implements AuthService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final AuthenticationManager authenticationManager;
     private final JwtUtil jwtUtil;
+    private final RefreshTokenService refreshTokenService;
 
     @Override
     @Transactional
@@ -34,12 +35,11 @@ public class AuthServiceImpl implements AuthService {
         User user = new User();
         user.setUsername(request.username());
         user.setEmail(request.email());
-        user.setPassword(passwordEncoder.encode(request.password()));
+        user.setPassword(passwordHashingService.encode(request.password()));
         user.setUserRole(UserRole.USER);
 
         User savedUser = userRepository.save(user);
-        String token = jwtUtil.generateToken(savedUser);
-        return createAuthResponse(token, savedUser);
+        return createAuthResponse(savedUser, refreshTokenService.issue(savedUser));
     }
 
     @Override
@@ -47,16 +47,29 @@ public class AuthServiceImpl implements AuthService {
         User user = userRepository.findByUsername(request.username())
                 .orElseThrow(() -> new BadCredentialsException("User not found"));
 
-        if (!passwordEncoder.matches(request.password(), user.getPassword())) {
+        if (!passwordHashingService.matches(request.password(), user.getPassword())) {
             throw new BadCredentialsException("Invalid password");
         }
-        String token = jwtUtil.generateToken(user);
-        return createAuthResponse(token, user);
+        if (!user.isEnabled()) {
+            throw new BadCredentialsException("User is blocked");
+        }
+        if (passwordHashingService.needsRehash(user.getPassword())) {
+            String rehashed = passwordHashingService.encode(request.password());
+            userRepository.replacePassword(user.getId(), user.getPassword(), rehashed);
+        }
+        return createAuthResponse(user, refreshTokenService.issue(user));
+    }
+
+    @Override
+    public AuthResponseDto refresh(RefreshRequestDto request) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(request.refreshToken());
+        return createAuthResponse(rotation.user(), rotation.refreshToken());
     }
 
-    private AuthResponseDto createAuthResponse(String token, User user) {
+    private AuthResponseDto createAuthResponse(User user, String refreshToken) {
         AuthResponseDto response = new AuthResponseDto(
-                token,
+                jwtUtil.generateToken(user),
+                refreshToken,
                 user.getUsername(),
                 user.getUserRole().name());
         return response;
@@ -0,0 +1,11 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.BulkCreateCardsResponseDto;
+import com.example.bankcards.dto.CreateCardRequestDto;
+
+import java.util.List;
+
+public interface BulkCardIssuanceService {
+
+    BulkCreateCardsResponseDto createCards(List<CreateCardRequestDto> requests);
+}
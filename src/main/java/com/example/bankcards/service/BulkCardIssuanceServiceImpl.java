@@ -0,0 +1,257 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.BulkCardResultDto;
+import com.example.bankcards.dto.BulkCreateCardsResponseDto;
+import com.example.bankcards.dto.CreateCardRequestDto;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardTransaction;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.CardTransactionRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.util.CardBlindIndex;
+import com.example.bankcards.util.CardEncryptionUtil;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class BulkCardIssuanceServiceImpl implements BulkCardIssuanceService {
+
+    private static final int LOOKUP_CHUNK_SIZE = 1000;
+
+    private final CardRepository cardRepository;
+    private final CardTransactionRepository cardTransactionRepository;
+    private final UserRepository userRepository;
+    private final CardEncryptionUtil encryptionUtil;
+    private final CardBlindIndex blindIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final int chunkSize;
+    private final int workerCount;
+    private final ExecutorService workers;
+
+    public BulkCardIssuanceServiceImpl(CardRepository cardRepository,
+                                       CardTransactionRepository cardTransactionRepository,
+                                       UserRepository userRepository,
+                                       CardEncryptionUtil encryptionUtil,
+                                       CardBlindIndex blindIndex,
+                                       TransactionTemplate transactionTemplate,
+                                       Validator validator,
+                                       @Value("${cards.bulk.chunk-size:1000}") int chunkSize,
+                                       @Value("${cards.bulk.threads:0}") int threads) {
+        this.cardRepository = cardRepository;
+        this.cardTransactionRepository = cardTransactionRepository;
+        this.userRepository = userRepository;
+        this.encryptionUtil = encryptionUtil;
+        this.blindIndex = blindIndex;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+        this.workerCount = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "card-issue-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public BulkCreateCardsResponseDto createCards(List<CreateCardRequestDto> requests) {
+        Issuance issuance = new Issuance(requests);
+        issuance.validate();
+        issuance.resolveUsers();
+        issuance.rejectDuplicates();
+        issuance.encrypt();
+        issuance.insert();
+        BulkCreateCardsResponseDto response = BulkCreateCardsResponseDto.of(Arrays.asList(issuance.results));
+        log.info("Bulk card issuance: {} created, {} failed", response.succeeded(), response.failed());
+        return response;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private final class Issuance {
+
+        private final List<CreateCardRequestDto> requests;
+        private final String[] errors;
+        private final String[] hashes;
+        private final String[] encrypted;
+        private final BulkCardResultDto[] results;
+        private final Map<Long, User> users = new HashMap<>();
+        private final int keyVersion = encryptionUtil.getActiveKeyId();
+
+        private Issuance(List<CreateCardRequestDto> requests) {
+            this.requests = requests;
+            this.errors = new String[requests.size()];
+            this.hashes = new String[requests.size()];
+            this.encrypted = new String[requests.size()];
+            this.results = new BulkCardResultDto[requests.size()];
+        }
+
+        private void validate() {
+            for (int i = 0; i < requests.size(); i++) {
+                CreateCardRequestDto request = requests.get(i);
+                if (request == null) {
+                    errors[i] = "Card request is missing";
+                    continue;
+                }
+                Set<ConstraintViolation<CreateCardRequestDto>> violations = validator.validate(request);
+                if (!violations.isEmpty()) {
+                    errors[i] = violations.stream()
+                            .map(ConstraintViolation::getMessage)
+                            .sorted()
+                            .collect(Collectors.joining("; "));
+                }
+            }
+        }
+
+        private void resolveUsers() {
+            Set<Long> userIds = new LinkedHashSet<>();
+            for (int i = 0; i < requests.size(); i++) {
+                if (errors[i] == null) {
+                    userIds.add(requests.get(i).userId());
+                }
+            }
+            for (List<Long> chunk : chunks(new ArrayList<>(userIds), LOOKUP_CHUNK_SIZE)) {
+                userRepository.findAllById(chunk).forEach(user -> users.put(user.getId(), user));
+            }
+            for (int i = 0; i < requests.size(); i++) {
+                if (errors[i] == null && !users.containsKey(requests.get(i).userId())) {
+                    errors[i] = "User not found with id: " + requests.get(i).userId();
+                }
+            }
+        }
+
+        private void rejectDuplicates() {
+            Map<String, Integer> firstIndex = new HashMap<>();
+            for (int i = 0; i < requests.size(); i++) {
+                if (errors[i] != null) {
+                    continue;
+                }
+                hashes[i] = blindIndex.compute(requests.get(i).cardNumber());
+                Integer first = firstIndex.putIfAbsent(hashes[i], i);
+                if (first != null) {
+                    errors[i] = "Duplicate card number, same as item " + first;
+                }
+            }
+            Set<String> existing = new HashSet<>();
+            for (List<String> chunk : chunks(new ArrayList<>(firstIndex.keySet()), LOOKUP_CHUNK_SIZE)) {
+                existing.addAll(cardRepository.findExistingHashes(chunk));
+            }
+            for (int i = 0; i < requests.size(); i++) {
+                if (errors[i] == null && existing.contains(hashes[i])) {
+                    errors[i] = "Card with this number already exists";
+                }
+            }
+        }
+
+        private void encrypt() {
+            List<Integer> valid = pending();
+            List<Callable<Void>> slices = new ArrayList<>(workerCount);
+            for (List<Integer> slice : chunks(valid, Math.max(1, (valid.size() + workerCount - 1) / workerCount))) {
+                slices.add(() -> {
+                    for (int index : slice) {
+                        encrypted[index] = encryptionUtil.encrypt(requests.get(index).cardNumber());
+                    }
+                    return null;
+                });
+            }
+            try {
+                for (Future<Void> result : workers.invokeAll(slices)) {
+                    result.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while encrypting card numbers", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Card number encryption failed", e.getCause());
+            }
+        }
+
+        private void insert() {
+            for (int i = 0; i < requests.size(); i++) {
+                if (errors[i] != null) {
+                    results[i] = BulkCardResultDto.failed(i, errors[i]);
+                }
+            }
+            for (List<Integer> chunk : chunks(pending(), chunkSize)) {
+                insertChunk(chunk);
+            }
+        }
+
+        private void insertChunk(List<Integer> chunk) {
+            try {
+                List<Card> saved = transactionTemplate.execute(status -> persist(chunk));
+                for (int k = 0; k < chunk.size(); k++) {
+                    results[chunk.get(k)] = BulkCardResultDto.succeeded(chunk.get(k), saved.get(k));
+                }
+            } catch (DataIntegrityViolationException e) {
+                if (chunk.size() == 1) {
+                    results[chunk.get(0)] = BulkCardResultDto.failed(chunk.get(0), "Card could not be saved: conflicting data");
+                    return;
+                }
+                for (int index : chunk) {
+                    insertChunk(List.of(index));
+                }
+            }
+        }
+
+        private List<Card> persist(List<Integer> chunk) {
+            List<Card> cards = new ArrayList<>(chunk.size());
+            for (int index : chunk) {
+                CreateCardRequestDto request = requests.get(index);
+                cards.add(CardServiceImpl.newCard(request, users.get(request.userId()),
+                        encrypted[index], keyVersion, hashes[index]));
+            }
+            List<Card> saved = cardRepository.saveAll(cards);
+            cardTransactionRepository.saveAll(saved.stream().map(CardTransaction::openingBalance).toList());
+            cardRepository.flush();
+            return saved;
+        }
+
+        private List<Integer> pending() {
+            List<Integer> indexes = new ArrayList<>();
+            for (int i = 0; i < requests.size(); i++) {
+                if (errors[i] == null) {
+                    indexes.add(i);
+                }
+            }
+            return indexes;
+        }
+    }
+
+    private static <T> List<List<T>> chunks(List<T> items, int size) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < items.size(); from += size) {
+            chunks.add(items.subList(from, Math.min(from + size, items.size())));
+        }
+        return chunks;
+    }
+}
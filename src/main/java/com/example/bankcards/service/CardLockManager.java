@@ -0,0 +1,113 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.exception.CardLockTimeoutException;
+import com.example.bankcards.util.StatsProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+@Component
+public class CardLockManager implements StatsProvider {
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+    private final long timeoutNanos;
+
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder contended = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    public CardLockManager(@Value("${transfer.lock.stripes:1024}") int stripeCount,
+                           @Value("${transfer.lock.timeout:PT2S}") Duration timeout) {
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock(true);
+        }
+        this.mask = size - 1;
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    public <T> T withCardLocks(Long firstCardId, Long secondCardId, Supplier<T> action) {
+        int first = stripeIndex(firstCardId);
+        int second = stripeIndex(secondCardId);
+        ReentrantLock lower = stripes[Math.min(first, second)];
+        ReentrantLock upper = first == second ? null : stripes[Math.max(first, second)];
+
+        long deadline = System.nanoTime() + timeoutNanos;
+        acquire(lower, deadline);
+        try {
+            if (upper != null) {
+                acquire(upper, deadline);
+            }
+            try {
+                return action.get();
+            } finally {
+                if (upper != null) {
+                    upper.unlock();
+                }
+            }
+        } finally {
+            lower.unlock();
+        }
+    }
+
+    private void acquire(ReentrantLock lock, long deadline) {
+        acquisitions.increment();
+        if (lock.tryLock()) {
+            return;
+        }
+        contended.increment();
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = lock.tryLock(deadline - start, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CardLockTimeoutException("Interrupted while waiting for card lock");
+        } finally {
+            long waited = System.nanoTime() - start;
+            totalWaitNanos.add(waited);
+            maxWaitNanos.accumulateAndGet(waited, Math::max);
+        }
+        if (!acquired) {
+            timeouts.increment();
+            throw new CardLockTimeoutException("Card is busy with other transfers, please retry later");
+        }
+    }
+
+    private int stripeIndex(Long cardId) {
+        int hash = Long.hashCode(cardId) * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    @Override
+    public String getStatsName() {
+        return "cardLocks";
+    }
+
+    @Override
+    public Map<String, Number> getStats() {
+        long contendedCount = contended.sum();
+        long waitNanos = totalWaitNanos.sum();
+        Map<String, Number> stats = new LinkedHashMap<>();
+        stats.put("stripes", stripes.length);
+        stats.put("acquisitions", acquisitions.sum());
+        stats.put("contended", contendedCount);
+        stats.put("timeouts", timeouts.sum());
+        stats.put("waitTotalMillis", TimeUnit.NANOSECONDS.toMillis(waitNanos));
+        stats.put("waitAvgMicros", contendedCount == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(waitNanos / contendedCount));
+        stats.put("waitMaxMicros", TimeUnit.NANOSECONDS.toMicros(maxWaitNanos.get()));
+        return stats;
+    }
+}
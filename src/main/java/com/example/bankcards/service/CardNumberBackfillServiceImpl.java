@@ -0,0 +1,104 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.util.CardBlindIndex;
+import com.example.bankcards.util.CardEncryptionUtil;
+import com.example.bankcards.util.CardNumberUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+@Slf4j
+@Service
+public class CardNumberBackfillServiceImpl implements CardNumberBackfillService {
+
+    private final CardRepository cardRepository;
+    private final CardEncryptionUtil encryptionUtil;
+    private final CardBlindIndex blindIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public CardNumberBackfillServiceImpl(CardRepository cardRepository,
+                                         CardEncryptionUtil encryptionUtil,
+                                         CardBlindIndex blindIndex,
+                                         TransactionTemplate transactionTemplate,
+                                         @Value("${cards.number-backfill.batch-size:500}") int batchSize) {
+        this.cardRepository = cardRepository;
+        this.encryptionUtil = encryptionUtil;
+        this.blindIndex = blindIndex;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public int backfill() {
+        int updated = 0;
+        long afterId = 0;
+        while (true) {
+            List<CardRepository.EncryptedNumber> batch =
+                    cardRepository.findWithoutNumberParts(afterId, PageRequest.of(0, batchSize));
+            if (batch.isEmpty()) {
+                break;
+            }
+            updated += backfillBatch(batch);
+            afterId = batch.get(batch.size() - 1).getId();
+            if (batch.size() < batchSize) {
+                break;
+            }
+        }
+        if (updated > 0) {
+            log.info("Backfilled number parts for {} cards", updated);
+        }
+        return updated;
+    }
+
+    private int backfillBatch(List<CardRepository.EncryptedNumber> batch) {
+        Integer updated = transactionTemplate.execute(status -> {
+            int count = 0;
+            for (CardRepository.EncryptedNumber card : batch) {
+                String cardNumber = decrypt(card);
+                if (cardNumber != null && backfillCard(card, cardNumber)) {
+                    count++;
+                }
+            }
+            return count;
+        });
+        return updated != null ? updated : 0;
+    }
+
+    private boolean backfillCard(CardRepository.EncryptedNumber card, String cardNumber) {
+        boolean updated = false;
+        if (card.getCardLast4() == null) {
+            updated = cardRepository.setNumberParts(card.getId(),
+                    CardNumberUtil.last4(cardNumber), CardNumberUtil.bin(cardNumber)) > 0;
+        }
+        if (card.getCardNumberHash() == null) {
+            if (cardRepository.setNumberHash(card.getId(), blindIndex.compute(cardNumber)) > 0) {
+                updated = true;
+            } else {
+                log.warn("Card {} has the same number as another card, leaving its blind index empty", card.getId());
+            }
+        }
+        return updated;
+    }
+
+    private String decrypt(CardRepository.EncryptedNumber card) {
+        try {
+            String cardNumber = encryptionUtil.decrypt(card.getCardNumber());
+            if (CardNumberUtil.isCardNumber(cardNumber)) {
+                return cardNumber;
+            }
+            log.warn("Card {} does not decrypt to a card number, leaving it masked", card.getId());
+        } catch (RuntimeException e) {
+            log.warn("Cannot decrypt card {}, leaving it masked", card.getId());
+        }
+        return null;
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.ReEncryptionStatusDto;
+
+public interface CardReEncryptionService {
+
+    ReEncryptionStatusDto start();
+
+    ReEncryptionStatusDto getStatus();
+}
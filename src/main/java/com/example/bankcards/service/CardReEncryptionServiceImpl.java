@@ -0,0 +1,270 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.ReEncryptionStatusDto;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.util.CardEncryptionUtil;
+import com.example.bankcards.util.StatsProvider;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+@Slf4j
+@Service
+public class CardReEncryptionServiceImpl implements CardReEncryptionService, StatsProvider {
+
+    private static final String UPDATE_CARD_NUMBER = "UPDATE bank_cards SET card_number = ?, key_version = ?, " +
+            "key_error_version = NULL, version = version + 1 WHERE id = ? AND card_number = ?";
+    private static final String MARK_FAILED = "UPDATE bank_cards SET key_error_version = ? " +
+            "WHERE id = ? AND card_number = ?";
+    private static final int FAILED_ID_LIMIT = 100;
+
+    private final CardRepository cardRepository;
+    private final CardEncryptionUtil encryptionUtil;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int workerCount;
+    private final boolean resumeOnStartup;
+    private final ExecutorService coordinator;
+    private final ExecutorService workers;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder reEncrypted = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private volatile int targetKeyVersion;
+    private volatile long total;
+    private volatile Long lastCardId;
+    private volatile long unrecoverable;
+    private volatile List<Long> unrecoverableCardIds = List.of();
+    private volatile long startedNanos;
+    private volatile long finishedNanos;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+
+    public CardReEncryptionServiceImpl(CardRepository cardRepository,
+                                       CardEncryptionUtil encryptionUtil,
+                                       JdbcTemplate jdbcTemplate,
+                                       TransactionTemplate transactionTemplate,
+                                       @Value("${cards.re-encryption.chunk-size:1000}") int chunkSize,
+                                       @Value("${cards.re-encryption.threads:0}") int threads,
+                                       @Value("${cards.re-encryption.resume-on-startup:true}") boolean resumeOnStartup) {
+        this.cardRepository = cardRepository;
+        this.encryptionUtil = encryptionUtil;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+        this.workerCount = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.resumeOnStartup = resumeOnStartup;
+        this.coordinator = Executors.newSingleThreadExecutor(runnable -> daemon(runnable, "card-reencrypt"));
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerCount,
+                runnable -> daemon(runnable, "card-reencrypt-" + threadNumber.getAndIncrement()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resume() {
+        if (!resumeOnStartup) {
+            return;
+        }
+        int target = encryptionUtil.getActiveKeyId();
+        targetKeyVersion = target;
+        refreshFailures(target);
+        if (unrecoverable > 0) {
+            log.warn("{} cards could not be decrypted for key version {} and are skipped on startup; " +
+                    "start re-encryption manually to retry them", unrecoverable, target);
+        }
+        if (cardRepository.countPendingReEncryption(target) > 0) {
+            start(false);
+        }
+    }
+
+    @Override
+    public ReEncryptionStatusDto start() {
+        return start(true);
+    }
+
+    private ReEncryptionStatusDto start(boolean retryFailed) {
+        if (running.compareAndSet(false, true)) {
+            int target = encryptionUtil.getActiveKeyId();
+            reset(target, retryFailed);
+            coordinator.execute(() -> {
+                try {
+                    run(target, retryFailed);
+                } catch (RuntimeException e) {
+                    log.error("Card re-encryption to key version {} stopped after card {}", target, lastCardId, e);
+                } finally {
+                    finish();
+                }
+            });
+        }
+        return getStatus();
+    }
+
+    @Override
+    public ReEncryptionStatusDto getStatus() {
+        return new ReEncryptionStatusDto(running.get(), targetKeyVersion, total, processed.sum(),
+                reEncrypted.sum(), failed.sum(), unrecoverable, unrecoverableCardIds, lastCardId,
+                cardsPerSecond(), startedAt, finishedAt);
+    }
+
+    void reset(int target, boolean retryFailed) {
+        targetKeyVersion = target;
+        processed.reset();
+        reEncrypted.reset();
+        failed.reset();
+        lastCardId = null;
+        finishedAt = null;
+        total = retryFailed ? cardRepository.countByKeyVersionNot(target) : cardRepository.countPendingReEncryption(target);
+        startedAt = LocalDateTime.now();
+        startedNanos = System.nanoTime();
+    }
+
+    void run(int target, boolean retryFailed) {
+        long afterId = 0;
+        while (true) {
+            List<CardRepository.EncryptedNumber> chunk =
+                    cardRepository.findWithOtherKeyVersion(target, afterId, retryFailed, PageRequest.of(0, chunkSize));
+            if (chunk.isEmpty()) {
+                break;
+            }
+            ChunkResult result = reEncrypt(chunk, target);
+            if (!result.updates().isEmpty() || !result.failures().isEmpty()) {
+                int[] counts = transactionTemplate.execute(status -> {
+                    if (!result.failures().isEmpty()) {
+                        jdbcTemplate.batchUpdate(MARK_FAILED, result.failures());
+                    }
+                    return result.updates().isEmpty() ? new int[0]
+                            : jdbcTemplate.batchUpdate(UPDATE_CARD_NUMBER, result.updates());
+                });
+                for (int count : counts) {
+                    if (count > 0) {
+                        reEncrypted.increment();
+                    }
+                }
+            }
+            processed.add(chunk.size());
+            afterId = chunk.get(chunk.size() - 1).getId();
+            lastCardId = afterId;
+            if (chunk.size() < chunkSize) {
+                break;
+            }
+        }
+        refreshFailures(target);
+        log.info("Card re-encryption to key version {} finished: {} re-encrypted, {} failed",
+                target, reEncrypted.sum(), failed.sum());
+    }
+
+    private void refreshFailures(int target) {
+        unrecoverable = cardRepository.countFailedForKeyVersion(target);
+        unrecoverableCardIds = unrecoverable == 0 ? List.of()
+                : cardRepository.findIdsFailedForKeyVersion(target, PageRequest.of(0, FAILED_ID_LIMIT));
+    }
+
+    private void finish() {
+        finishedNanos = System.nanoTime();
+        finishedAt = LocalDateTime.now();
+        running.set(false);
+    }
+
+    private ChunkResult reEncrypt(List<CardRepository.EncryptedNumber> chunk, int target) {
+        int sliceSize = (chunk.size() + workerCount - 1) / workerCount;
+        List<Callable<ChunkResult>> slices = new ArrayList<>(workerCount);
+        for (int from = 0; from < chunk.size(); from += sliceSize) {
+            List<CardRepository.EncryptedNumber> slice = chunk.subList(from, Math.min(from + sliceSize, chunk.size()));
+            slices.add(() -> reEncryptSlice(slice, target));
+        }
+        ChunkResult merged = new ChunkResult(new ArrayList<>(chunk.size()), new ArrayList<>());
+        try {
+            for (Future<ChunkResult> future : workers.invokeAll(slices)) {
+                ChunkResult result = future.get();
+                merged.updates().addAll(result.updates());
+                merged.failures().addAll(result.failures());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while re-encrypting cards", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Card re-encryption failed", e.getCause());
+        }
+        return merged;
+    }
+
+    private ChunkResult reEncryptSlice(List<CardRepository.EncryptedNumber> slice, int target) {
+        ChunkResult result = new ChunkResult(new ArrayList<>(slice.size()), new ArrayList<>());
+        for (CardRepository.EncryptedNumber card : slice) {
+            try {
+                String cardNumber = encryptionUtil.decrypt(card.getCardNumber());
+                result.updates().add(new Object[]{encryptionUtil.encrypt(cardNumber), target, card.getId(), card.getCardNumber()});
+            } catch (RuntimeException e) {
+                failed.increment();
+                result.failures().add(new Object[]{target, card.getId(), card.getCardNumber()});
+                log.warn("Cannot decrypt card {}, leaving it on its current key", card.getId());
+            }
+        }
+        return result;
+    }
+
+    private double cardsPerSecond() {
+        if (startedAt == null) {
+            return 0;
+        }
+        long end = running.get() ? System.nanoTime() : finishedNanos;
+        double seconds = (end - startedNanos) / 1_000_000_000.0;
+        return seconds > 0 ? processed.sum() / seconds : 0;
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        coordinator.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    @Override
+    public String getStatsName() {
+        return "cardReEncryption";
+    }
+
+    @Override
+    public Map<String, Number> getStats() {
+        Map<String, Number> stats = new LinkedHashMap<>();
+        stats.put("running", running.get() ? 1 : 0);
+        stats.put("targetKeyVersion", targetKeyVersion);
+        stats.put("total", total);
+        stats.put("processed", processed.sum());
+        stats.put("reEncrypted", reEncrypted.sum());
+        stats.put("failed", failed.sum());
+        stats.put("unrecoverable", unrecoverable);
+        stats.put("cardsPerSecond", cardsPerSecond());
+        return stats;
+    }
+
+    private record ChunkResult(List<Object[]> updates, List<Object[]> failures) {
+    }
+}
@@ -1,35 +1,52 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.dto.BatchTransferResponseDto;
 import com.example.bankcards.dto.CardResponseDto;
 import com.example.bankcards.dto.CreateCardRequestDto;
 import com.example.bankcards.dto.TransferRequestDto;
+import com.example.bankcards.dto.TransferResultDto;
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.CardTransaction;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.entity.UserRole;
 import com.example.bankcards.exception.CardNotFoundException;
-import com.example.bankcards.exception.InsufficientFundsException;
 import com.example.bankcards.exception.OperationNotAllowedException;
 import com.example.bankcards.exception.UserNotFoundException;
 import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.CardTransactionRepository;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.util.CardBlindIndex;
 import com.example.bankcards.util.CardEncryptionUtil;
+import com.example.bankcards.util.CardNumberUtil;
+import com.example.bankcards.util.RetryOnConflict;
+import com.example.bankcards.security.UserPrincipal;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class CardServiceImpl implements UserCardService, AdminCardService {
 
     private final CardRepository cardRepository;
+    private final CardTransactionRepository cardTransactionRepository;
+    private final CardTransferProcessor cardTransferProcessor;
     private final UserRepository userRepository;
     private final CardEncryptionUtil encryptionUtil;
+    private final CardBlindIndex blindIndex;
+    private final IdempotencyService idempotencyService;
+    private final CardLockManager cardLockManager;
+    private final TransactionTemplate transactionTemplate;
 
     @Override
     public Page<CardResponseDto> getUserCards(Long userId, String search, Pageable pageable) {
@@ -44,7 +61,7 @@ public class CardServiceImpl implements UserCardService, AdminCardService {
     }
 
     @Override
-    public CardResponseDto getCardById(Long cardId, User user) {
+    public CardResponseDto getCardById(Long cardId, UserPrincipal user) {
         Card card = cardRepository.findById(cardId)
                 .orElseThrow(() -> new CardNotFoundException("Card not found with id: " + cardId));
         if (!user.getUserRole().equals(UserRole.ADMIN) && !card.getUser().getId().equals(user.getId())) {
@@ -54,33 +71,45 @@ public class CardServiceImpl implements UserCardService, AdminCardService {
     }
 
     @Override
-    public void transferBetweenCards(TransferRequestDto request, User user) {
-        Card fromcard = cardRepository.findById(request.fromCardId())
-                .orElseThrow(() -> new CardNotFoundException("Source card not found"));
-        Card tocard = cardRepository.findById(request.toCardId())
-                .orElseThrow(() -> new CardNotFoundException("Destination card not found"));
-
-        if (!fromcard.getUser().getId().equals(user.getId()) || !tocard.getUser().getId().equals(user.getId())) {
-            throw new OperationNotAllowedException("You can only transfer between your own cards");
-        }
-        if (fromcard.isExpired() || fromcard.getStatus() != CardStatus.ACTIVE) {
-            throw new OperationNotAllowedException("Source card expired or is not active");
-        }
-        if (tocard.isExpired() || tocard.getStatus() != CardStatus.ACTIVE) {
-            throw new OperationNotAllowedException("Destination card expired or is not active");
-        }
-        if (fromcard.getBalance().compareTo(request.amount()) < 0) {
-            throw new InsufficientFundsException("Insufficient funds on source card");
+    @RetryOnConflict
+    public void transferBetweenCards(TransferRequestDto request, UserPrincipal user) {
+        transferBetweenCards(request, user, null);
+    }
+
+    @Override
+    @RetryOnConflict
+    public boolean transferBetweenCards(TransferRequestDto request, UserPrincipal user, String idempotencyKey) {
+        String fingerprint = idempotencyKey != null ? request.fingerprint() : null;
+        if (idempotencyKey != null && idempotencyService.isReplay(user.getId(), idempotencyKey, fingerprint)) {
+            return false;
         }
+        return cardLockManager.withCardLocks(request.fromCardId(), request.toCardId(), () ->
+                Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                    if (idempotencyKey != null && !idempotencyService.claim(user.getId(), idempotencyKey, fingerprint)) {
+                        return false;
+                    }
+                    cardTransferProcessor.transfer(request, user.getId(), user.getUserRole());
+                    return true;
+                })));
+    }
 
-        fromcard.setBalance(fromcard.getBalance().subtract(request.amount()));
-        tocard.setBalance(tocard.getBalance().add(request.amount()));
-        cardRepository.save(fromcard);
-        cardRepository.save(tocard);
+    @Override
+    @RetryOnConflict
+    @Transactional
+    public BatchTransferResponseDto transferBatch(List<TransferRequestDto> transfers, UserPrincipal user) {
+        List<String> errors = cardTransferProcessor.transferLocked(
+                transfers, Collections.nCopies(transfers.size(), user.getId()));
+        List<TransferResultDto> results = new ArrayList<>(transfers.size());
+        for (int i = 0; i < transfers.size(); i++) {
+            results.add(errors.get(i) == null
+                    ? TransferResultDto.succeeded(i, transfers.get(i))
+                    : TransferResultDto.failed(i, transfers.get(i), errors.get(i)));
+        }
+        return BatchTransferResponseDto.of(results);
     }
 
     @Override
-    public BigDecimal getCardBalance(Long cardId, User user) {
+    public BigDecimal getCardBalance(Long cardId, UserPrincipal user) {
         Card card = cardRepository.findById(cardId)
                 .orElseThrow(() -> new CardNotFoundException("Card not found with id: " + cardId));
         if (!user.getUserRole().equals(UserRole.ADMIN) && !card.getUser().getId().equals(user.getId())) {
@@ -90,8 +119,9 @@ public class CardServiceImpl implements UserCardService, AdminCardService {
     }
 
     @Override
+    @RetryOnConflict
     @Transactional
-    public void requestBlockCard(Long cardId, User user) {
+    public void requestBlockCard(Long cardId, UserPrincipal user) {
         Card card = cardRepository.findById(cardId)
                 .orElseThrow(() -> new CardNotFoundException("Card not found with id: " + cardId));
 
@@ -130,20 +160,31 @@ public class CardServiceImpl implements UserCardService, AdminCardService {
     public CardResponseDto createCard(CreateCardRequestDto request) {
         User user = userRepository.findById(request.userId())
                 .orElseThrow(() -> new UserNotFoundException("User not found with id: " + request.userId()));
+        String cardNumberHash = blindIndex.compute(request.cardNumber());
+        if (cardRepository.existsByCardNumberHash(cardNumberHash)) {
+            throw new OperationNotAllowedException("Card with this number already exists");
+        }
 
-        Card card = new Card();
-        card.setCardNumber(encryptionUtil.encrypt(request.cardNumber()));
-        card.setCardHolderName(request.cardHolderName());
-        card.setExpirationDate(request.expirationDate());
-        card.setBalance(request.initialBalance());
-        card.setUser(user);
-        card.updateStatus();
+        Card card = newCard(request, user, encryptionUtil.encrypt(request.cardNumber()),
+                encryptionUtil.getActiveKeyId(), cardNumberHash);
 
         Card savedCard = cardRepository.save(card);
+        cardTransactionRepository.save(CardTransaction.openingBalance(savedCard));
         return CardResponseDto.fromEntity(savedCard);
     }
 
     @Override
+    public CardResponseDto findByCardNumber(String cardNumber) {
+        if (!CardNumberUtil.isCardNumber(cardNumber)) {
+            throw new OperationNotAllowedException("Card number must contain 16 to 19 digits");
+        }
+        return cardRepository.findByCardNumberHash(blindIndex.compute(cardNumber))
+                .map(CardResponseDto::fromEntity)
+                .orElseThrow(() -> new CardNotFoundException("Card not found with this number"));
+    }
+
+    @Override
+    @RetryOnConflict
     @Transactional
     public CardResponseDto updateCardStatus(Long cardId, CardStatus status) {
         Card card = cardRepository.findById(cardId)
@@ -158,13 +199,30 @@ public class CardServiceImpl implements UserCardService, AdminCardService {
     }
 
     @Override
+    @RetryOnConflict
     public void deleteCard(Long cardId) {
         Card card = cardRepository.findById(cardId)
                 .orElseThrow(() -> new CardNotFoundException("Card not found with id: " + cardId));
 
-        if (card.getBalance().compareTo(BigDecimal.ZERO) > 0) {
+        if (card.getBalanceMinor() > 0) {
             throw new OperationNotAllowedException("Cannot delete card with positive balance");
         }
         cardRepository.delete(card);
     }
+
+    static Card newCard(CreateCardRequestDto request, User user, String encryptedNumber,
+                        int keyVersion, String cardNumberHash) {
+        Card card = new Card();
+        card.setCardNumber(encryptedNumber);
+        card.setKeyVersion(keyVersion);
+        card.setCardLast4(CardNumberUtil.last4(request.cardNumber()));
+        card.setCardBin(CardNumberUtil.bin(request.cardNumber()));
+        card.setCardNumberHash(cardNumberHash);
+        card.setCardHolderName(request.cardHolderName());
+        card.setExpirationDate(request.expirationDate());
+        card.setBalance(request.initialBalance());
+        card.setUser(user);
+        card.updateStatus();
+        return card;
+    }
 }
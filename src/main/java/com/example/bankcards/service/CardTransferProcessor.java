@@ -0,0 +1,160 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.TransferRequestDto;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.CardTransaction;
+import com.example.bankcards.entity.UserRole;
+import com.example.bankcards.exception.CardNotFoundException;
+import com.example.bankcards.exception.InsufficientFundsException;
+import com.example.bankcards.exception.OperationNotAllowedException;
+import com.example.bankcards.exception.TransferLimitExceededException;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.CardTransactionRepository;
+import com.example.bankcards.util.MoneyUtil;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+
+@Component
+@RequiredArgsConstructor
+public class CardTransferProcessor {
+
+    private final CardRepository cardRepository;
+    private final CardTransactionRepository cardTransactionRepository;
+    private final TransferLimitService transferLimitService;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void transfer(TransferRequestDto request, Long userId, UserRole role) {
+        long amount = MoneyUtil.toMinorUnits(request.amount());
+        reserveLimit(request, role);
+        if (cardRepository.debit(request.fromCardId(), userId, amount) == 0) {
+            throw rejectDebit(request.fromCardId(), userId, amount);
+        }
+        if (cardRepository.credit(request.toCardId(), userId, amount) == 0) {
+            throw rejectCredit(request.toCardId(), userId);
+        }
+        cardTransactionRepository.saveAll(journalEntries(request));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<String> transferLocked(List<TransferRequestDto> transfers, List<Long> ownerIds) {
+        Set<Long> cardIds = new TreeSet<>();
+        for (TransferRequestDto transfer : transfers) {
+            cardIds.add(transfer.fromCardId());
+            cardIds.add(transfer.toCardId());
+        }
+        Map<Long, Card> cards = new HashMap<>();
+        for (Card card : cardRepository.findAllByIdForUpdate(cardIds)) {
+            cards.put(card.getId(), card);
+        }
+
+        List<String> errors = new ArrayList<>(transfers.size());
+        List<CardTransaction> journal = new ArrayList<>();
+        for (int i = 0; i < transfers.size(); i++) {
+            TransferRequestDto transfer = transfers.get(i);
+            Long ownerId = ownerIds.get(i);
+            Card fromCard = cards.get(transfer.fromCardId());
+            Card toCard = cards.get(transfer.toCardId());
+            long amount = MoneyUtil.toMinorUnits(transfer.amount());
+            RuntimeException error = checkSource(fromCard, ownerId, amount);
+            if (error == null) {
+                error = checkDestination(toCard, ownerId);
+            }
+            if (error == null) {
+                error = tryReserveLimit(transfer, fromCard.getUser().getUserRole());
+            }
+            if (error != null) {
+                errors.add(error.getMessage());
+                continue;
+            }
+            fromCard.setBalanceMinor(fromCard.getBalanceMinor() - amount);
+            toCard.setBalanceMinor(toCard.getBalanceMinor() + amount);
+            journal.addAll(journalEntries(transfer));
+            errors.add(null);
+        }
+        cardTransactionRepository.saveAll(journal);
+        return errors;
+    }
+
+    private RuntimeException tryReserveLimit(TransferRequestDto transfer, UserRole role) {
+        try {
+            reserveLimit(transfer, role);
+            return null;
+        } catch (TransferLimitExceededException e) {
+            return e;
+        }
+    }
+
+    private void reserveLimit(TransferRequestDto transfer, UserRole role) {
+        TransferLimitService.LimitReservation reservation =
+                transferLimitService.reserve(transfer.fromCardId(), role, transfer.amount());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    transferLimitService.release(reservation);
+                }
+            }
+        });
+    }
+
+    private List<CardTransaction> journalEntries(TransferRequestDto transfer) {
+        UUID transferId = UUID.randomUUID();
+        return List.of(
+                CardTransaction.transferDebit(transferId, transfer.fromCardId(), transfer.toCardId(),
+                        transfer.amount(), transfer.description()),
+                CardTransaction.transferCredit(transferId, transfer.toCardId(), transfer.fromCardId(),
+                        transfer.amount(), transfer.description()));
+    }
+
+    private RuntimeException rejectDebit(Long cardId, Long userId, long amount) {
+        RuntimeException error = checkSource(cardRepository.findById(cardId).orElse(null), userId, amount);
+        return error != null ? error : new InsufficientFundsException("Insufficient funds on source card");
+    }
+
+    private RuntimeException rejectCredit(Long cardId, Long userId) {
+        RuntimeException error = checkDestination(cardRepository.findById(cardId).orElse(null), userId);
+        return error != null ? error : new OperationNotAllowedException("Destination card expired or is not active");
+    }
+
+    private RuntimeException checkSource(Card card, Long userId, long amount) {
+        if (card == null) {
+            return new CardNotFoundException("Source card not found");
+        }
+        if (!card.getUser().getId().equals(userId)) {
+            return new OperationNotAllowedException("You can only transfer between your own cards");
+        }
+        if (card.isExpired() || card.getStatus() != CardStatus.ACTIVE) {
+            return new OperationNotAllowedException("Source card expired or is not active");
+        }
+        if (card.getBalanceMinor() < amount) {
+            return new InsufficientFundsException("Insufficient funds on source card");
+        }
+        return null;
+    }
+
+    private RuntimeException checkDestination(Card card, Long userId) {
+        if (card == null) {
+            return new CardNotFoundException("Destination card not found");
+        }
+        if (!card.getUser().getId().equals(userId)) {
+            return new OperationNotAllowedException("You can only transfer between your own cards");
+        }
+        if (card.isExpired() || card.getStatus() != CardStatus.ACTIVE) {
+            return new OperationNotAllowedException("Destination card expired or is not active");
+        }
+        return null;
+    }
+}
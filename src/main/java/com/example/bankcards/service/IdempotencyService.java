@@ -0,0 +1,9 @@
+package com.example.bankcards.service;
+
+public interface IdempotencyService {
+    boolean isReplay(Long userId, String key, String fingerprint);
+
+    boolean claim(Long userId, String key, String fingerprint);
+
+    int purgeExpired();
+}
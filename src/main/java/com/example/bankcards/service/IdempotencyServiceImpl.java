@@ -0,0 +1,121 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.IdempotencyKey;
+import com.example.bankcards.exception.IdempotencyKeyConflictException;
+import com.example.bankcards.exception.OperationNotAllowedException;
+import com.example.bankcards.repository.IdempotencyKeyRepository;
+import com.example.bankcards.util.LruCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 100;
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final Duration ttl;
+    private final int purgeBatchSize;
+    private final LruCache<String, String> recentKeys;
+
+    public IdempotencyServiceImpl(IdempotencyKeyRepository idempotencyKeyRepository,
+                                  @Value("${idempotency.ttl:PT24H}") Duration ttl,
+                                  @Value("${idempotency.cache-size:10000}") int cacheSize,
+                                  @Value("${idempotency.purge-batch-size:1000}") int purgeBatchSize) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.ttl = ttl;
+        this.purgeBatchSize = purgeBatchSize;
+        this.recentKeys = new LruCache<>(cacheSize);
+    }
+
+    @Override
+    public boolean isReplay(Long userId, String key, String fingerprint) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new OperationNotAllowedException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters long");
+        }
+        String requestHash = hash(fingerprint);
+        String cachedHash = recentKeys.get(cacheKey(userId, key));
+        if (cachedHash != null) {
+            return matches(cachedHash, requestHash);
+        }
+
+        Optional<IdempotencyKey> stored = idempotencyKeyRepository.findByUserIdAndIdempotencyKey(userId, key);
+        if (stored.isEmpty()) {
+            return false;
+        }
+        IdempotencyKey storedKey = stored.get();
+        Duration remaining = Duration.between(LocalDateTime.now(), storedKey.getExpiresAt());
+        if (remaining.isNegative() || remaining.isZero()) {
+            return false;
+        }
+        recentKeys.put(cacheKey(userId, key), storedKey.getRequestHash(), remaining);
+        return matches(storedKey.getRequestHash(), requestHash);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean claim(Long userId, String key, String fingerprint) {
+        String requestHash = hash(fingerprint);
+        LocalDateTime now = LocalDateTime.now();
+        int inserted = idempotencyKeyRepository.insertIfAbsent(userId, key, requestHash, now, now.plus(ttl));
+        if (inserted == 0) {
+            IdempotencyKey storedKey = idempotencyKeyRepository.findByUserIdAndIdempotencyKey(userId, key)
+                    .orElseThrow(() -> new IllegalStateException("Idempotency key disappeared: " + key));
+            matches(storedKey.getRequestHash(), requestHash);
+            return false;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentKeys.put(cacheKey(userId, key), requestHash, ttl);
+            }
+        });
+        return true;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval:PT10M}")
+    public int purgeExpired() {
+        int total = 0;
+        int deleted;
+        do {
+            deleted = idempotencyKeyRepository.deleteExpiredBatch(LocalDateTime.now(), purgeBatchSize);
+            total += deleted;
+        } while (deleted == purgeBatchSize);
+        return total;
+    }
+
+    private boolean matches(String storedHash, String requestHash) {
+        if (!storedHash.equals(requestHash)) {
+            throw new IdempotencyKeyConflictException("Idempotency-Key was already used with a different request");
+        }
+        return true;
+    }
+
+    private static String cacheKey(Long userId, String key) {
+        return userId + ":" + key;
+    }
+
+    private static String hash(String fingerprint) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(fingerprint.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.User;
+
+public interface RefreshTokenService {
+    String issue(User user);
+
+    Rotation rotate(String refreshToken);
+
+    int purgeExpired();
+
+    record Rotation(User user, String refreshToken) {
+    }
+}
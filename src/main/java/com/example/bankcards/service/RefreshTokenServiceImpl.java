@@ -0,0 +1,94 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.RefreshToken;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.RefreshTokenRepository;
+import com.example.bankcards.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+
+@Service
+public class RefreshTokenServiceImpl implements RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final Duration ttl;
+    private final int purgeBatchSize;
+    private final SecureRandom random = new SecureRandom();
+
+    public RefreshTokenServiceImpl(RefreshTokenRepository refreshTokenRepository,
+                                   UserRepository userRepository,
+                                   @Value("${jwt.refresh.ttl:P30D}") Duration ttl,
+                                   @Value("${jwt.refresh.purge-batch-size:1000}") int purgeBatchSize) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.ttl = ttl;
+        this.purgeBatchSize = purgeBatchSize;
+    }
+
+    @Override
+    @Transactional
+    public String issue(User user) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        refreshTokenRepository.save(RefreshToken.of(user, hash(token), LocalDateTime.now().plus(ttl)));
+        return token;
+    }
+
+    @Override
+    @Transactional(noRollbackFor = BadCredentialsException.class)
+    public Rotation rotate(String refreshToken) {
+        LocalDateTime now = LocalDateTime.now();
+        RefreshToken stored = refreshTokenRepository.findByTokenHashForUpdate(hash(refreshToken))
+                .orElseThrow(() -> new BadCredentialsException("Invalid refresh token"));
+        if (stored.getRevokedAt() != null) {
+            refreshTokenRepository.revokeAllByUserId(stored.getUserId(), now);
+            throw new BadCredentialsException("Refresh token was already used");
+        }
+        if (!stored.isActive(now)) {
+            throw new BadCredentialsException("Refresh token has expired");
+        }
+        User user = userRepository.findById(stored.getUserId())
+                .filter(User::isEnabled)
+                .filter(u -> u.getTokenVersion() == stored.getTokenVersion())
+                .orElseThrow(() -> new BadCredentialsException("Refresh token has been revoked"));
+        stored.setRevokedAt(now);
+        return new Rotation(user, issue(user));
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${jwt.refresh.purge-interval:PT1H}")
+    public int purgeExpired() {
+        int total = 0;
+        int deleted;
+        do {
+            deleted = refreshTokenRepository.deleteExpiredBatch(LocalDateTime.now(), purgeBatchSize);
+            total += deleted;
+        } while (deleted == purgeBatchSize);
+        return total;
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
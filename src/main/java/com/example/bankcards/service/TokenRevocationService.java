@@ -0,0 +1,12 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.security.UserPrincipal;
+
+public interface TokenRevocationService {
+
+    boolean isRevoked(UserPrincipal principal);
+
+    void revoke(Long userId, long tokenVersion);
+
+    int refresh();
+}
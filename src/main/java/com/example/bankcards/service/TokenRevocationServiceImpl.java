@@ -0,0 +1,140 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.repository.RevokedTokenRepository;
+import com.example.bankcards.security.UserPrincipal;
+import com.example.bankcards.util.BloomFilter;
+import com.example.bankcards.util.StatsProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+@Service
+public class TokenRevocationServiceImpl implements TokenRevocationService, StatsProvider {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final long tokenLifetimeMillis;
+    private final int expectedEntries;
+    private final double falsePositiveRate;
+    private final int purgeBatchSize;
+    private volatile BloomFilter filter;
+    private volatile BloomFilter rebuilding;
+    private volatile int loadedEntries;
+
+    private final LongAdder checks = new LongAdder();
+    private final LongAdder bloomHits = new LongAdder();
+    private final LongAdder confirmed = new LongAdder();
+
+    public TokenRevocationServiceImpl(RevokedTokenRepository revokedTokenRepository,
+                                      @Value("${jwt.expiration}") long tokenLifetimeMillis,
+                                      @Value("${jwt.revocation.expected-entries:100000}") int expectedEntries,
+                                      @Value("${jwt.revocation.false-positive-rate:0.001}") double falsePositiveRate,
+                                      @Value("${jwt.revocation.purge-batch-size:1000}") int purgeBatchSize) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.tokenLifetimeMillis = tokenLifetimeMillis;
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        this.purgeBatchSize = purgeBatchSize;
+        this.filter = new BloomFilter(expectedEntries, falsePositiveRate);
+    }
+
+    @Override
+    public boolean isRevoked(UserPrincipal principal) {
+        checks.increment();
+        if (!filter.mightContain(key(principal.getId(), principal.getTokenVersion()))) {
+            return false;
+        }
+        bloomHits.increment();
+        boolean revoked = revokedTokenRepository.existsByUserIdAndTokenVersionAndExpiresAtAfter(
+                principal.getId(), principal.getTokenVersion(), LocalDateTime.now());
+        if (revoked) {
+            confirmed.increment();
+        }
+        return revoked;
+    }
+
+    @Override
+    public void revoke(Long userId, long tokenVersion) {
+        LocalDateTime now = LocalDateTime.now();
+        revokedTokenRepository.insertIfAbsent(userId, tokenVersion, now, now.plusNanos(tokenLifetimeMillis * 1_000_000));
+        long key = key(userId, tokenVersion);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            addToFilters(key);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                addToFilters(key);
+            }
+        });
+    }
+
+    private void addToFilters(long key) {
+        BloomFilter next = rebuilding;
+        filter.add(key);
+        if (next != null) {
+            next.add(key);
+        }
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${jwt.revocation.refresh-interval:PT10S}",
+            initialDelayString = "${jwt.revocation.refresh-interval:PT10S}")
+    public synchronized int refresh() {
+        LocalDateTime now = LocalDateTime.now();
+        int deleted;
+        do {
+            deleted = revokedTokenRepository.deleteExpiredBatch(now, purgeBatchSize);
+        } while (deleted == purgeBatchSize);
+
+        BloomFilter next = new BloomFilter(Math.max(expectedEntries, loadedEntries * 2), falsePositiveRate);
+        rebuilding = next;
+        try {
+            List<RevokedTokenRepository.RevokedKey> keys = revokedTokenRepository.findActiveKeys(now);
+            for (RevokedTokenRepository.RevokedKey revokedKey : keys) {
+                next.add(key(revokedKey.getUserId(), revokedKey.getTokenVersion()));
+            }
+            filter = next;
+            loadedEntries = keys.size();
+            return keys.size();
+        } finally {
+            rebuilding = null;
+        }
+    }
+
+    private static long key(Long userId, long tokenVersion) {
+        return userId * 0x9E3779B97F4A7C15L + tokenVersion;
+    }
+
+    @Override
+    public String getStatsName() {
+        return "tokenRevocations";
+    }
+
+    @Override
+    public Map<String, Number> getStats() {
+        long hits = bloomHits.sum();
+        long revoked = confirmed.sum();
+        BloomFilter current = filter;
+        Map<String, Number> stats = new LinkedHashMap<>();
+        stats.put("entries", loadedEntries);
+        stats.put("checks", checks.sum());
+        stats.put("bloomHits", hits);
+        stats.put("confirmed", revoked);
+        stats.put("falsePositives", hits - revoked);
+        stats.put("filterBits", current.getBitCount());
+        stats.put("filterHashes", current.getHashCount());
+        return stats;
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.User;
+
+public interface TokenVersionService {
+    void revokeTokens(User user);
+}
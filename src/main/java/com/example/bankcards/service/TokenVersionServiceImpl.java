@@ -0,0 +1,18 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class TokenVersionServiceImpl implements TokenVersionService {
+
+    private final TokenRevocationService tokenRevocationService;
+
+    @Override
+    public void revokeTokens(User user) {
+        tokenRevocationService.revoke(user.getId(), user.getTokenVersion());
+        user.setTokenVersion(user.getTokenVersion() + 1);
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.CardLimitDto;
+import com.example.bankcards.entity.UserRole;
+
+import java.math.BigDecimal;
+
+public interface TransferLimitService {
+    LimitReservation reserve(Long cardId, UserRole role, BigDecimal amount);
+
+    void release(LimitReservation reservation);
+
+    CardLimitDto getCardLimits(Long cardId);
+
+    CardLimitDto updateCardLimits(Long cardId, CardLimitDto limits);
+
+    int reconcile();
+
+    record LimitReservation(Long cardId, long bucket, long amountMinor) {
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.TransferLimitProperties;
+import com.example.bankcards.dto.CardLimitDto;
+import com.example.bankcards.entity.CardLimit;
+import com.example.bankcards.entity.UserRole;
+import com.example.bankcards.exception.CardNotFoundException;
+import com.example.bankcards.exception.TransferLimitExceededException;
+import com.example.bankcards.repository.CardLimitRepository;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.CardTransactionRepository;
+import com.example.bankcards.util.MoneyUtil;
+import com.example.bankcards.util.SlidingWindowCounter;
+import com.example.bankcards.util.StatsProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+@Service
+public class TransferLimitServiceImpl implements TransferLimitService, StatsProvider {
+
+    private static final Limits UNLIMITED = new Limits(Long.MAX_VALUE, Long.MAX_VALUE, Integer.MAX_VALUE);
+
+    private final CardLimitRepository cardLimitRepository;
+    private final CardTransactionRepository cardTransactionRepository;
+    private final CardRepository cardRepository;
+    private final TransferLimitProperties properties;
+    private final long bucketSeconds;
+    private final Map<UserRole, Limits> roleLimits = new EnumMap<>(UserRole.class);
+    private final ConcurrentHashMap<Long, SlidingWindowCounter> windows = new ConcurrentHashMap<>();
+    private volatile Map<Long, CardLimit> cardLimits = Map.of();
+
+    private final LongAdder reservations = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder reconciliations = new LongAdder();
+
+    public TransferLimitServiceImpl(CardLimitRepository cardLimitRepository,
+                                    CardTransactionRepository cardTransactionRepository,
+                                    CardRepository cardRepository,
+                                    TransferLimitProperties properties) {
+        this.cardLimitRepository = cardLimitRepository;
+        this.cardTransactionRepository = cardTransactionRepository;
+        this.cardRepository = cardRepository;
+        this.properties = properties;
+        this.bucketSeconds = Math.max(1, properties.window().toSeconds() / properties.buckets());
+        properties.roles().forEach((role, limits) -> roleLimits.put(role, new Limits(
+                limits.perTransaction() == null ? Long.MAX_VALUE : MoneyUtil.toMinorUnits(limits.perTransaction()),
+                limits.dailyAmount() == null ? Long.MAX_VALUE : MoneyUtil.toMinorUnits(limits.dailyAmount()),
+                limits.dailyCount() == null ? Integer.MAX_VALUE : limits.dailyCount())));
+    }
+
+    @Override
+    public LimitReservation reserve(Long cardId, UserRole role, BigDecimal amount) {
+        long amountMinor = MoneyUtil.toMinorUnits(amount);
+        Limits limits = effectiveLimits(cardId, role);
+        if (amountMinor > limits.perTransaction()) {
+            rejections.increment();
+            throw new TransferLimitExceededException("Transfer amount exceeds the per-transaction limit of "
+                    + MoneyUtil.fromMinorUnits(limits.perTransaction()));
+        }
+        long bucket = currentBucket();
+        boolean[] accepted = new boolean[1];
+        windows.compute(cardId, (id, window) -> {
+            SlidingWindowCounter counter = window != null ? window : new SlidingWindowCounter(properties.buckets());
+            accepted[0] = counter.tryAdd(bucket, amountMinor, limits.dailyAmount(), limits.dailyCount());
+            return counter;
+        });
+        if (!accepted[0]) {
+            rejections.increment();
+            throw new TransferLimitExceededException("Daily transfer limit exceeded for card " + cardId);
+        }
+        reservations.increment();
+        return new LimitReservation(cardId, bucket, amountMinor);
+    }
+
+    @Override
+    public void release(LimitReservation reservation) {
+        SlidingWindowCounter window = windows.get(reservation.cardId());
+        if (window != null) {
+            window.remove(reservation.bucket(), reservation.amountMinor());
+        }
+    }
+
+    @Override
+    public CardLimitDto getCardLimits(Long cardId) {
+        if (!cardRepository.existsById(cardId)) {
+            throw new CardNotFoundException("Card not found with id: " + cardId);
+        }
+        return cardLimitRepository.findById(cardId)
+                .map(CardLimitDto::fromEntity)
+                .orElseGet(() -> new CardLimitDto(null, null, null));
+    }
+
+    @Override
+    public synchronized CardLimitDto updateCardLimits(Long cardId, CardLimitDto limits) {
+        if (!cardRepository.existsById(cardId)) {
+            throw new CardNotFoundException("Card not found with id: " + cardId);
+        }
+        Map<Long, CardLimit> updated = new HashMap<>(cardLimits);
+        if (limits.perTransaction() == null && limits.dailyAmount() == null && limits.dailyCount() == null) {
+            cardLimitRepository.deleteById(cardId);
+            updated.remove(cardId);
+        } else {
+            CardLimit cardLimit = new CardLimit();
+            cardLimit.setCardId(cardId);
+            cardLimit.setPerTransactionMinor(limits.perTransaction() == null ? null : MoneyUtil.toMinorUnits(limits.perTransaction()));
+            cardLimit.setDailyAmountMinor(limits.dailyAmount() == null ? null : MoneyUtil.toMinorUnits(limits.dailyAmount()));
+            cardLimit.setDailyCount(limits.dailyCount());
+            cardLimit.setUpdatedAt(LocalDateTime.now());
+            updated.put(cardId, cardLimitRepository.save(cardLimit));
+        }
+        cardLimits = Map.copyOf(updated);
+        return limits;
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${transfer.limits.reconcile-interval:PT5M}",
+            initialDelayString = "${transfer.limits.reconcile-interval:PT5M}")
+    public synchronized int reconcile() {
+        Map<Long, CardLimit> loaded = new HashMap<>();
+        cardLimitRepository.findAll().forEach(limit -> loaded.put(limit.getCardId(), limit));
+        cardLimits = Map.copyOf(loaded);
+
+        long bucket = currentBucket();
+        List<CardTransactionRepository.DebitBucket> rows = cardTransactionRepository.sumDebitsByBucket(
+                LocalDateTime.now().minus(properties.window()), bucketSeconds);
+        for (CardTransactionRepository.DebitBucket row : rows) {
+            long total = MoneyUtil.toMinorUnits(row.getTotal());
+            int transfers = row.getTransfers().intValue();
+            windows.compute(row.getCardId(), (id, window) -> {
+                SlidingWindowCounter counter = window != null ? window : new SlidingWindowCounter(properties.buckets());
+                counter.mergeAtLeast(row.getBucket(), total, transfers);
+                return counter;
+            });
+        }
+        for (Long cardId : windows.keySet()) {
+            windows.computeIfPresent(cardId, (id, window) -> window.isEmpty(bucket) ? null : window);
+        }
+        reconciliations.increment();
+        return rows.size();
+    }
+
+    private Limits effectiveLimits(Long cardId, UserRole role) {
+        Limits defaults = roleLimits.getOrDefault(role, UNLIMITED);
+        CardLimit override = cardLimits.get(cardId);
+        if (override == null) {
+            return defaults;
+        }
+        return new Limits(
+                override.getPerTransactionMinor() != null ? override.getPerTransactionMinor() : defaults.perTransaction(),
+                override.getDailyAmountMinor() != null ? override.getDailyAmountMinor() : defaults.dailyAmount(),
+                override.getDailyCount() != null ? override.getDailyCount() : defaults.dailyCount());
+    }
+
+    private long currentBucket() {
+        return LocalDateTime.now().toEpochSecond(ZoneOffset.UTC) / bucketSeconds;
+    }
+
+    @Override
+    public String getStatsName() {
+        return "transferLimits";
+    }
+
+    @Override
+    public Map<String, Number> getStats() {
+        Map<String, Number> stats = new LinkedHashMap<>();
+        stats.put("trackedCards", windows.size());
+        stats.put("cardOverrides", cardLimits.size());
+        stats.put("reservations", reservations.sum());
+        stats.put("rejections", rejections.sum());
+        stats.put("reconciliations", reconciliations.sum());
+        return stats;
+    }
+
+    private record Limits(long perTransaction, long dailyAmount, int dailyCount) {
+    }
+}
@@ -1,21 +1,27 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.dto.BatchTransferResponseDto;
 import com.example.bankcards.dto.CardResponseDto;
 import com.example.bankcards.dto.TransferRequestDto;
-import com.example.bankcards.entity.User;
+import com.example.bankcards.security.UserPrincipal;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 public interface UserCardService {
     Page<CardResponseDto> getUserCards(Long userId, String search, Pageable pageable);
 
-    CardResponseDto getCardById(Long cardId, User user);
+    CardResponseDto getCardById(Long cardId, UserPrincipal user);
 
-    void transferBetweenCards(TransferRequestDto request, User user);
+    void transferBetweenCards(TransferRequestDto request, UserPrincipal user);
 
-    BigDecimal getCardBalance(Long cardId, User user);
+    boolean transferBetweenCards(TransferRequestDto request, UserPrincipal user, String idempotencyKey);
 
-    void requestBlockCard(Long cardId, User user);
+    BatchTransferResponseDto transferBatch(List<TransferRequestDto> transfers, UserPrincipal user);
+
+    BigDecimal getCardBalance(Long cardId, UserPrincipal user);
+
+    void requestBlockCard(Long cardId, UserPrincipal user);
 }
@@ -0,0 +1,15 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.UserImportResultDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface UserImportService {
+    UserImportResultDto importUsers(InputStream input, Format format) throws IOException;
+
+    enum Format {
+        NDJSON,
+        CSV
+    }
+}
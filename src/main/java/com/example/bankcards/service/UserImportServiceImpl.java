@@ -0,0 +1,233 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.RegisterRequestDto;
+import com.example.bankcards.dto.UserImportResultDto;
+import com.example.bankcards.entity.UserRole;
+import com.example.bankcards.exception.OperationNotAllowedException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+public class UserImportServiceImpl implements UserImportService {
+
+    private static final String INSERT_USER = "INSERT INTO users (username, email, password, user_role, enabled, token_version) " +
+            "VALUES (?, ?, ?, ?, TRUE, 0) ON CONFLICT DO NOTHING";
+    private static final String FIND_EXISTING = "SELECT username, email FROM users " +
+            "WHERE username IN (:usernames) OR email IN (:emails)";
+    private static final List<String> CSV_HEADER = List.of("username", "email", "password");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordHashingService passwordHashingService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int batchSize;
+    private final int maxReportedErrors;
+
+    public UserImportServiceImpl(JdbcTemplate jdbcTemplate,
+                                 NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+                                 TransactionTemplate transactionTemplate,
+                                 PasswordHashingService passwordHashingService,
+                                 ObjectMapper objectMapper,
+                                 Validator validator,
+                                 @Value("${users.import.batch-size:500}") int batchSize,
+                                 @Value("${users.import.max-reported-errors:100}") int maxReportedErrors) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.passwordHashingService = passwordHashingService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    @Override
+    public UserImportResultDto importUsers(InputStream input, Format format) throws IOException {
+        Progress progress = new Progress();
+        List<Row> batch = new ArrayList<>(batchSize);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        String line;
+        long lineNumber = 0;
+        if (format == Format.CSV) {
+            String header = reader.readLine();
+            lineNumber++;
+            if (header == null || !CSV_HEADER.equals(parseCsvLine(stripBom(header)).stream()
+                    .map(column -> column.trim().toLowerCase(Locale.ROOT)).toList())) {
+                throw new OperationNotAllowedException("CSV header must be: username,email,password");
+            }
+        }
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            progress.processed++;
+            RegisterRequestDto request = parse(lineNumber == 1 ? stripBom(line) : line, format, lineNumber, progress);
+            if (request != null) {
+                batch.add(new Row(lineNumber, request));
+                if (batch.size() == batchSize) {
+                    flush(batch, progress);
+                }
+            }
+        }
+        flush(batch, progress);
+        return new UserImportResultDto(progress.processed, progress.imported, progress.duplicates,
+                progress.invalid, progress.errors);
+    }
+
+    private RegisterRequestDto parse(String line, Format format, long lineNumber, Progress progress) {
+        RegisterRequestDto request;
+        if (format == Format.CSV) {
+            List<String> columns = parseCsvLine(line);
+            if (columns.size() != CSV_HEADER.size()) {
+                progress.invalid(lineNumber, "expected 3 columns but got " + columns.size(), maxReportedErrors);
+                return null;
+            }
+            request = new RegisterRequestDto(columns.get(0).trim(), columns.get(1).trim(), columns.get(2));
+        } else {
+            try {
+                request = objectMapper.readValue(line, RegisterRequestDto.class);
+            } catch (JsonProcessingException e) {
+                progress.invalid(lineNumber, "malformed JSON", maxReportedErrors);
+                return null;
+            }
+        }
+        Set<ConstraintViolation<RegisterRequestDto>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            progress.invalid(lineNumber, violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")), maxReportedErrors);
+            return null;
+        }
+        return request;
+    }
+
+    private void flush(List<Row> batch, Progress progress) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Set<String> existingUsernames = new HashSet<>();
+        Set<String> existingEmails = new HashSet<>();
+        List<String> usernames = batch.stream().map(row -> row.request().username()).toList();
+        List<String> emails = batch.stream().map(row -> row.request().email()).toList();
+        namedParameterJdbcTemplate.query(FIND_EXISTING,
+                new MapSqlParameterSource("usernames", usernames).addValue("emails", emails),
+                rs -> {
+                    existingUsernames.add(rs.getString("username"));
+                    existingEmails.add(rs.getString("email"));
+                });
+
+        List<Row> fresh = new ArrayList<>(batch.size());
+        for (Row row : batch) {
+            RegisterRequestDto request = row.request();
+            if (existingUsernames.contains(request.username()) || existingEmails.contains(request.email())) {
+                progress.duplicate(row.lineNumber(), maxReportedErrors);
+                continue;
+            }
+            existingUsernames.add(request.username());
+            existingEmails.add(request.email());
+            fresh.add(row);
+        }
+        batch.clear();
+        if (fresh.isEmpty()) {
+            return;
+        }
+
+        List<String> hashes = passwordHashingService.encodeAll(fresh.stream().map(row -> row.request().password()).toList());
+        List<Object[]> rows = new ArrayList<>(fresh.size());
+        for (int i = 0; i < fresh.size(); i++) {
+            RegisterRequestDto request = fresh.get(i).request();
+            rows.add(new Object[]{request.username(), request.email(), hashes.get(i), UserRole.USER.name()});
+        }
+        int[] inserted = transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(INSERT_USER, rows));
+        for (int i = 0; i < inserted.length; i++) {
+            if (inserted[i] == 0) {
+                progress.duplicate(fresh.get(i).lineNumber(), maxReportedErrors);
+            } else {
+                progress.imported++;
+            }
+        }
+    }
+
+    static List<String> parseCsvLine(String line) {
+        List<String> columns = new ArrayList<>(CSV_HEADER.size());
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                columns.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        columns.add(current.toString());
+        return columns;
+    }
+
+    private static String stripBom(String line) {
+        return !line.isEmpty() && line.charAt(0) == '\uFEFF' ? line.substring(1) : line;
+    }
+
+    private record Row(long lineNumber, RegisterRequestDto request) {
+    }
+
+    private static final class Progress {
+        private long processed;
+        private long imported;
+        private long duplicates;
+        private long invalid;
+        private final List<String> errors = new ArrayList<>();
+
+        private void invalid(long lineNumber, String message, int maxReportedErrors) {
+            invalid++;
+            report("line " + lineNumber + ": " + message, maxReportedErrors);
+        }
+
+        private void duplicate(long lineNumber, int maxReportedErrors) {
+            duplicates++;
+            report("line " + lineNumber + ": username or email already exists", maxReportedErrors);
+        }
+
+        private void report(String error, int maxReportedErrors) {
+            if (errors.size() < maxReportedErrors) {
+                errors.add(error);
+            }
+        }
+    }
+}
@@ -23,6 +23,7 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final CardRepository cardRepository;
+    private final TokenVersionService tokenVersionService;
 
     @Override
     @Transactional
@@ -39,10 +40,16 @@ public class UserServiceImpl implements UserService {
             throw new DuplicateEmailException("Email already exists: " + updateDto.email());
         }
 
+        boolean claimsChanged = !user.getUsername().equals(updateDto.username())
+                || user.isEnabled() != updateDto.enabled()
+                || user.getUserRole() != updateDto.userRole();
         user.setUsername(updateDto.username());
         user.setEmail(updateDto.email());
         user.setEnabled(updateDto.enabled());
         user.setUserRole(updateDto.userRole());
+        if (claimsChanged) {
+            tokenVersionService.revokeTokens(user);
+        }
         User updatedUser = userRepository.save(user);
         return UserDto.fromEntity(updatedUser);
     }
@@ -57,6 +64,7 @@ public class UserServiceImpl implements UserService {
         }
 
         userRepository.delete(user);
+        tokenVersionService.revokeTokens(user);
     }
 
     @Override
@@ -71,18 +79,22 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public void blockUser(Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
         user.setEnabled(false);
+        tokenVersionService.revokeTokens(user);
         userRepository.save(user);
     }
 
     @Override
+    @Transactional
     public void unblockUser(Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
         user.setEnabled(true);
+        tokenVersionService.revokeTokens(user);
         userRepository.save(user);
     }
 
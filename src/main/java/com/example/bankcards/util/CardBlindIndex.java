@@ -0,0 +1,39 @@
+package com.example.bankcards.util;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.HexFormat;
+
+@Component
+public class CardBlindIndex {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final ThreadLocal<Mac> mac;
+
+    public CardBlindIndex(@Value("${encryption.blind-index-secret}") String secret) {
+        byte[] key = secret.getBytes(StandardCharsets.UTF_8);
+        if (key.length < 32) {
+            throw new IllegalArgumentException("Blind index key must be at least 32 bytes long");
+        }
+        SecretKeySpec secretKey = new SecretKeySpec(key, ALGORITHM);
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance(ALGORITHM);
+                instance.init(secretKey);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Cannot initialize blind index", e);
+            }
+        });
+    }
+
+    public String compute(String cardNumber) {
+        return HexFormat.of().formatHex(mac.get().doFinal(cardNumber.getBytes(StandardCharsets.UTF_8)));
+    }
+}
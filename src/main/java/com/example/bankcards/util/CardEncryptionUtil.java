@@ -1,47 +1,163 @@
 package com.example.bankcards.util;
 
-import org.springframework.beans.factory.annotation.Value;
+import com.example.bankcards.config.EncryptionProperties;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import javax.crypto.AEADBadTagException;
 import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
 import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
 
 @Component
 public class CardEncryptionUtil {
 
+    private static final byte ENVELOPE_VERSION = 1;
+    private static final int HEADER_LENGTH = 3;
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_LENGTH = 16;
+
     private static final String ALGORITHM = "AES";
-    private final SecretKeySpec secretKey;
+    private static final String GCM_TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final String LEGACY_TRANSFORMATION = "AES/ECB/PKCS5Padding";
 
-    public CardEncryptionUtil(@Value("${encryption.secret:default-encryption-key}") String secret) {
-        byte[] key = secret.getBytes();
+    private static final ThreadLocal<Cipher> GCM_CIPHER = ThreadLocal.withInitial(() -> cipher(GCM_TRANSFORMATION));
+    private static final ThreadLocal<Cipher> LEGACY_CIPHER = ThreadLocal.withInitial(() -> cipher(LEGACY_TRANSFORMATION));
 
-        if (key.length != 16 && key.length != 24 && key.length != 32) {
-            throw new IllegalArgumentException("Encryption key must be 16, 24 or 32 bytes long");
+    private final Map<Integer, SecretKeySpec> keys;
+    private final int activeKeyId;
+    private final SecretKeySpec activeKey;
+    private final SecretKeySpec legacyKey;
+    private final SecureRandom random = new SecureRandom();
+
+    @Autowired
+    public CardEncryptionUtil(EncryptionProperties properties) {
+        this(keyRing(properties), properties.activeKeyId());
+    }
+
+    public CardEncryptionUtil(String secret) {
+        this(Map.of(EncryptionProperties.LEGACY_KEY_ID, secret), EncryptionProperties.LEGACY_KEY_ID);
+    }
+
+    public CardEncryptionUtil(Map<Integer, String> secrets, int activeKeyId) {
+        Map<Integer, SecretKeySpec> ring = new HashMap<>();
+        secrets.forEach((keyId, secret) -> ring.put(keyId, secretKey(keyId, secret)));
+        if (!ring.containsKey(activeKeyId)) {
+            throw new IllegalArgumentException("Active encryption key " + activeKeyId + " is not in the key ring");
         }
-        this.secretKey = new SecretKeySpec(key, ALGORITHM);
+        this.keys = Map.copyOf(ring);
+        this.activeKeyId = activeKeyId;
+        this.activeKey = ring.get(activeKeyId);
+        this.legacyKey = ring.get(EncryptionProperties.LEGACY_KEY_ID);
+    }
+
+    public int getActiveKeyId() {
+        return activeKeyId;
     }
 
     public String encrypt(String data) {
+        byte[] plain = data.getBytes(StandardCharsets.UTF_8);
+        byte[] envelope = new byte[HEADER_LENGTH + IV_LENGTH + plain.length + TAG_LENGTH];
+        envelope[0] = ENVELOPE_VERSION;
+        envelope[1] = (byte) (activeKeyId >>> 8);
+        envelope[2] = (byte) activeKeyId;
+        byte[] iv = new byte[IV_LENGTH];
+        random.nextBytes(iv);
+        System.arraycopy(iv, 0, envelope, HEADER_LENGTH, IV_LENGTH);
         try {
-            Cipher cipher = Cipher.getInstance(ALGORITHM);
-            cipher.init(Cipher.ENCRYPT_MODE, secretKey);
-            byte[] encrypted = cipher.doFinal(data.getBytes());
-            return Base64.getEncoder().encodeToString(encrypted);
-        } catch (Exception e) {
+            Cipher cipher = GCM_CIPHER.get();
+            cipher.init(Cipher.ENCRYPT_MODE, activeKey, new GCMParameterSpec(TAG_LENGTH * 8, iv));
+            cipher.updateAAD(envelope, 0, HEADER_LENGTH);
+            cipher.doFinal(plain, 0, plain.length, envelope, HEADER_LENGTH + IV_LENGTH);
+            return Base64.getEncoder().encodeToString(envelope);
+        } catch (GeneralSecurityException e) {
             throw new RuntimeException("Error encrypting data", e);
         }
     }
 
     public String decrypt(String encryptData) {
+        byte[] decoded;
         try {
-            Cipher cipher = Cipher.getInstance(ALGORITHM);
-            cipher.init(Cipher.DECRYPT_MODE, secretKey);
-            byte[] decoded = Base64.getDecoder().decode(encryptData);
-            byte[] decrypted = cipher.doFinal(decoded);
-            return new String(decrypted);
-        } catch (Exception e) {
+            decoded = Base64.getDecoder().decode(encryptData);
+        } catch (IllegalArgumentException e) {
             throw new RuntimeException("Error decrypting data", e);
         }
+        String plain = isEnvelope(decoded) ? decryptEnvelope(decoded) : null;
+        return plain != null ? plain : decryptLegacy(decoded);
+    }
+
+    private String decryptEnvelope(byte[] envelope) {
+        SecretKeySpec key = keys.get(((envelope[1] & 0xFF) << 8) | (envelope[2] & 0xFF));
+        if (key == null) {
+            return null;
+        }
+        int offset = HEADER_LENGTH + IV_LENGTH;
+        byte[] plain = new byte[envelope.length - offset - TAG_LENGTH];
+        try {
+            Cipher cipher = GCM_CIPHER.get();
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH * 8, envelope, HEADER_LENGTH, IV_LENGTH));
+            cipher.updateAAD(envelope, 0, HEADER_LENGTH);
+            cipher.doFinal(envelope, offset, envelope.length - offset, plain, 0);
+        } catch (AEADBadTagException e) {
+            return null;
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("Error decrypting data", e);
+        }
+        return new String(plain, StandardCharsets.UTF_8);
+    }
+
+    private String decryptLegacy(byte[] decoded) {
+        if (legacyKey == null) {
+            throw new RuntimeException("Error decrypting data: unknown encryption key");
+        }
+        try {
+            Cipher cipher = LEGACY_CIPHER.get();
+            cipher.init(Cipher.DECRYPT_MODE, legacyKey);
+            int length = cipher.doFinal(decoded, 0, decoded.length, decoded, 0);
+            return new String(decoded, 0, length, StandardCharsets.UTF_8);
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("Error decrypting data", e);
+        }
+    }
+
+    private static Map<Integer, String> keyRing(EncryptionProperties properties) {
+        Map<Integer, String> secrets = new HashMap<>();
+        if (properties.secret() != null) {
+            secrets.put(EncryptionProperties.LEGACY_KEY_ID, properties.secret());
+        }
+        if (properties.keys() != null) {
+            secrets.putAll(properties.keys());
+        }
+        return secrets;
+    }
+
+    private static SecretKeySpec secretKey(int keyId, String secret) {
+        byte[] key = secret.getBytes(StandardCharsets.UTF_8);
+
+        if (key.length != 16 && key.length != 24 && key.length != 32) {
+            throw new IllegalArgumentException("Encryption key must be 16, 24 or 32 bytes long");
+        }
+        if (keyId < 0 || keyId > 0xFFFF) {
+            throw new IllegalArgumentException("Encryption key id must fit in two bytes");
+        }
+        return new SecretKeySpec(key, ALGORITHM);
+    }
+
+    private static boolean isEnvelope(byte[] decoded) {
+        return decoded.length >= HEADER_LENGTH + IV_LENGTH + TAG_LENGTH && decoded[0] == ENVELOPE_VERSION;
+    }
+
+    private static Cipher cipher(String transformation) {
+        try {
+            return Cipher.getInstance(transformation);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cipher " + transformation + " is not available", e);
+        }
     }
 }
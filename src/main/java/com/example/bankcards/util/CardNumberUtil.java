@@ -0,0 +1,38 @@
+package com.example.bankcards.util;
+
+public final class CardNumberUtil {
+
+    private static final String HIDDEN = "**** **** **** ****";
+    private static final int BIN_LENGTH = 6;
+    private static final int LAST4_LENGTH = 4;
+
+    private CardNumberUtil() {
+    }
+
+    public static String last4(String cardNumber) {
+        return cardNumber.substring(cardNumber.length() - LAST4_LENGTH);
+    }
+
+    public static String bin(String cardNumber) {
+        return cardNumber.substring(0, BIN_LENGTH);
+    }
+
+    public static boolean isCardNumber(String value) {
+        if (value == null || value.length() < 16 || value.length() > 19) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (!Character.isDigit(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static String mask(String last4) {
+        if (last4 == null || last4.length() != LAST4_LENGTH) {
+            return HIDDEN;
+        }
+        return "**** **** **** " + last4;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.bankcards.util;
+
+import java.math.BigDecimal;
+
+public final class MoneyUtil {
+
+    public static final int SCALE = 2;
+
+    private MoneyUtil() {
+    }
+
+    public static long toMinorUnits(BigDecimal amount) {
+        return amount.movePointRight(SCALE).longValueExact();
+    }
+
+    public static BigDecimal fromMinorUnits(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+}
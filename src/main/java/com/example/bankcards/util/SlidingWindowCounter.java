@@ -0,0 +1,75 @@
+package com.example.bankcards.util;
+
+import java.util.Arrays;
+
+public class SlidingWindowCounter {
+
+    private final long[] bucketIds;
+    private final long[] amounts;
+    private final int[] counts;
+
+    public SlidingWindowCounter(int buckets) {
+        this.bucketIds = new long[buckets];
+        this.amounts = new long[buckets];
+        this.counts = new int[buckets];
+        Arrays.fill(bucketIds, Long.MIN_VALUE);
+    }
+
+    public synchronized boolean tryAdd(long bucket, long amount, long maxAmount, int maxCount) {
+        long total = 0;
+        int count = 0;
+        long oldest = bucket - bucketIds.length;
+        for (int i = 0; i < bucketIds.length; i++) {
+            if (bucketIds[i] > oldest) {
+                total += amounts[i];
+                count += counts[i];
+            }
+        }
+        if (total + amount > maxAmount || count + 1 > maxCount) {
+            return false;
+        }
+        int slot = slot(bucket);
+        if (bucketIds[slot] != bucket) {
+            bucketIds[slot] = bucket;
+            amounts[slot] = 0;
+            counts[slot] = 0;
+        }
+        amounts[slot] += amount;
+        counts[slot]++;
+        return true;
+    }
+
+    public synchronized void remove(long bucket, long amount) {
+        int slot = slot(bucket);
+        if (bucketIds[slot] == bucket) {
+            amounts[slot] -= amount;
+            counts[slot]--;
+        }
+    }
+
+    public synchronized void mergeAtLeast(long bucket, long amount, int count) {
+        int slot = slot(bucket);
+        if (bucketIds[slot] < bucket) {
+            bucketIds[slot] = bucket;
+            amounts[slot] = amount;
+            counts[slot] = count;
+        } else if (bucketIds[slot] == bucket) {
+            amounts[slot] = Math.max(amounts[slot], amount);
+            counts[slot] = Math.max(counts[slot], count);
+        }
+    }
+
+    public synchronized boolean isEmpty(long bucket) {
+        long oldest = bucket - bucketIds.length;
+        for (int i = 0; i < bucketIds.length; i++) {
+            if (bucketIds[i] > oldest && counts[i] > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int slot(long bucket) {
+        return (int) Math.floorMod(bucket, (long) bucketIds.length);
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.bankcards.util;
+
+import java.util.Map;
+
+public interface StatsProvider {
+    String getStatsName();
+
+    Map<String, Number> getStats();
+}
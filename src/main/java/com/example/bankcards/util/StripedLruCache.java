@@ -0,0 +1,87 @@
+package com.example.bankcards.util;
+
+import java.time.Duration;
+
+public class StripedLruCache<K, V> {
+
+    private static final int DEFAULT_STRIPES = 16;
+
+    private final LruCache<K, V>[] stripes;
+    private final int mask;
+
+    public StripedLruCache(int maxSize) {
+        this(maxSize, DEFAULT_STRIPES);
+    }
+
+    @SuppressWarnings("unchecked")
+    public StripedLruCache(int maxSize, int stripeCount) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("Stripe count must be positive");
+        }
+        int count = Integer.highestOneBit(Math.min(stripeCount, maxSize));
+        int stripeSize = (maxSize + count - 1) / count;
+        this.stripes = new LruCache[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new LruCache<>(stripeSize);
+        }
+        this.mask = count - 1;
+    }
+
+    public V get(K key) {
+        return stripe(key).get(key);
+    }
+
+    public void put(K key, V value, Duration ttl) {
+        stripe(key).put(key, value, ttl);
+    }
+
+    public void remove(K key) {
+        stripe(key).remove(key);
+    }
+
+    public void clear() {
+        for (LruCache<K, V> stripe : stripes) {
+            stripe.clear();
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (LruCache<K, V> stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    public long getHitCount() {
+        long hits = 0;
+        for (LruCache<K, V> stripe : stripes) {
+            hits += stripe.getHitCount();
+        }
+        return hits;
+    }
+
+    public long getMissCount() {
+        long misses = 0;
+        for (LruCache<K, V> stripe : stripes) {
+            misses += stripe.getMissCount();
+        }
+        return misses;
+    }
+
+    public long getEvictionCount() {
+        long evictions = 0;
+        for (LruCache<K, V> stripe : stripes) {
+            evictions += stripe.getEvictionCount();
+        }
+        return evictions;
+    }
+
+    private LruCache<K, V> stripe(K key) {
+        int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & mask];
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.bankcards.util;
+
+public class TokenBucket {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private long theoreticalArrival;
+
+    public TokenBucket(int capacity, long intervalNanos, long nowNanos) {
+        if (capacity <= 0 || intervalNanos <= 0) {
+            throw new IllegalArgumentException("Token bucket capacity and interval must be positive");
+        }
+        this.intervalNanos = intervalNanos;
+        this.burstNanos = (capacity - 1) * intervalNanos;
+        this.theoreticalArrival = nowNanos;
+    }
+
+    public synchronized long tryAcquire(long nowNanos) {
+        long arrival = Math.max(theoreticalArrival, nowNanos);
+        long waitNanos = arrival - nowNanos - burstNanos;
+        if (waitNanos > 0) {
+            return waitNanos;
+        }
+        theoreticalArrival = arrival + intervalNanos;
+        return 0;
+    }
+
+    public synchronized void refund() {
+        theoreticalArrival -= intervalNanos;
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.exception.InsufficientFundsException;
+import com.example.bankcards.util.RetryOnConflict;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.sql.SQLException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetryOnConflictAspectTest {
+
+    private RetryOnConflictAspect aspect;
+    private FlakyOperation target;
+    private FlakyOperation proxy;
+
+    @BeforeEach
+    void setUp() {
+        aspect = new RetryOnConflictAspect(3, Duration.ofMillis(1), Duration.ofMillis(2));
+        target = new FlakyOperation();
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.addAspect(aspect);
+        proxy = factory.getProxy();
+    }
+
+    @Test
+    void retry_OptimisticLockFailure_ShouldRetryUntilSuccess() {
+        target.failures = 2;
+        target.failure = new ObjectOptimisticLockingFailureException("Card", 1L);
+
+        assertEquals("ok", proxy.update());
+        assertEquals(3, target.calls);
+        assertEquals(2L, aspect.getStats().get("retries"));
+        assertEquals(1L, aspect.getStats().get("recovered"));
+    }
+
+    @Test
+    void retry_DeadlockSqlState_ShouldBeRetryable() {
+        target.failures = 1;
+        target.failure = new RuntimeException(new SQLException("deadlock detected", "40P01"));
+
+        assertEquals("ok", proxy.update());
+        assertEquals(2, target.calls);
+    }
+
+    @Test
+    void retry_PersistentConflict_ShouldGiveUpAfterMaxAttempts() {
+        target.failures = 10;
+        target.failure = new CannotAcquireLockException("could not serialize access");
+
+        assertThrows(CannotAcquireLockException.class, () -> proxy.update());
+        assertEquals(3, target.calls);
+        assertEquals(1L, aspect.getStats().get("giveUps"));
+    }
+
+    @Test
+    void retry_BusinessException_ShouldNotRetry() {
+        target.failures = 1;
+        target.failure = new InsufficientFundsException("Insufficient funds on source card");
+
+        assertThrows(InsufficientFundsException.class, () -> proxy.update());
+        assertEquals(1, target.calls);
+    }
+
+    @Test
+    void retry_NotAnnotatedMethod_ShouldNotRetry() {
+        target.failures = 1;
+        target.failure = new ObjectOptimisticLockingFailureException("Card", 1L);
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> proxy.read());
+        assertEquals(1, target.calls);
+    }
+
+    static class FlakyOperation {
+        int failures;
+        int calls;
+        RuntimeException failure;
+
+        @RetryOnConflict
+        public String update() {
+            return call();
+        }
+
+        public String read() {
+            return call();
+        }
+
+        private String call() {
+            calls++;
+            if (calls <= failures) {
+                throw failure;
+            }
+            return "ok";
+        }
+    }
+}
@@ -1,11 +1,19 @@
 package com.example.bankcards.controller;
 
+import com.example.bankcards.dto.BulkCardResultDto;
+import com.example.bankcards.dto.BulkCreateCardsRequestDto;
+import com.example.bankcards.dto.BulkCreateCardsResponseDto;
+import com.example.bankcards.dto.CardLimitDto;
 import com.example.bankcards.dto.CardResponseDto;
 import com.example.bankcards.dto.CreateCardRequestDto;
+import com.example.bankcards.dto.ReEncryptionStatusDto;
 import com.example.bankcards.entity.CardStatus;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.entity.UserRole;
 import com.example.bankcards.service.AdminCardService;
+import com.example.bankcards.service.BulkCardIssuanceService;
+import com.example.bankcards.service.CardReEncryptionService;
+import com.example.bankcards.service.TransferLimitService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -34,6 +42,7 @@ import java.util.Collections;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -47,6 +56,15 @@ class AdminCardControllerTest {
     @Mock
     private AdminCardService cardService;
 
+    @Mock
+    private TransferLimitService transferLimitService;
+
+    @Mock
+    private CardReEncryptionService cardReEncryptionService;
+
+    @Mock
+    private BulkCardIssuanceService bulkCardIssuanceService;
+
     @InjectMocks
     private AdminCardController adminCardController;
 
@@ -239,4 +257,106 @@ class AdminCardControllerTest {
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isUnsupportedMediaType());
     }
-}
\ No newline at end of file
+
+    @Test
+    void updateCardLimits_ValidRequest_ShouldReturnLimits() throws Exception {
+        CardLimitDto limits = new CardLimitDto(new BigDecimal("500.00"), null, 10);
+        when(transferLimitService.updateCardLimits(eq(1L), any(CardLimitDto.class))).thenReturn(limits);
+
+        mockMvc.perform(put("/admin/cards/1/limits")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(limits)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.perTransaction").value(500.00))
+                .andExpect(jsonPath("$.dailyCount").value(10));
+
+        verify(transferLimitService).updateCardLimits(eq(1L), any(CardLimitDto.class));
+    }
+
+    @Test
+    void updateCardLimits_NegativeCount_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(put("/admin/cards/1/limits")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CardLimitDto(null, null, -1))))
+                .andExpect(status().isBadRequest());
+
+        verify(transferLimitService, never()).updateCardLimits(any(), any());
+    }
+
+    @Test
+    void lookupCard_ValidNumber_ShouldReturnCard() throws Exception {
+        CardResponseDto response = new CardResponseDto(
+                5L, "**** **** **** 3456", "John Doe",
+                LocalDate.now().plusYears(1), CardStatus.ACTIVE, new BigDecimal("10.00")
+        );
+        when(cardService.findByCardNumber("1234567890123456")).thenReturn(response);
+
+        mockMvc.perform(get("/admin/cards/lookup")
+                        .param("cardNumber", "1234567890123456"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(5))
+                .andExpect(jsonPath("$.maskedCardNumber").value("**** **** **** 3456"));
+    }
+
+    @Test
+    void lookupCard_MissingNumber_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/admin/cards/lookup"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(cardService);
+    }
+
+    @Test
+    void startReEncryption_ShouldReturnAcceptedWithStatus() throws Exception {
+        when(cardReEncryptionService.start()).thenReturn(new ReEncryptionStatusDto(
+                true, 2, 100, 0, 0, 0, 0, List.of(), null, 0, java.time.LocalDateTime.now(), null));
+
+        mockMvc.perform(post("/admin/cards/re-encryption"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.running").value(true))
+                .andExpect(jsonPath("$.targetKeyVersion").value(2))
+                .andExpect(jsonPath("$.total").value(100));
+    }
+
+    @Test
+    void getReEncryptionStatus_ShouldReturnProgress() throws Exception {
+        when(cardReEncryptionService.getStatus()).thenReturn(new ReEncryptionStatusDto(
+                false, 2, 100, 100, 99, 1, 1, List.of(17L), 250L, 5000.0, null, null));
+
+        mockMvc.perform(get("/admin/cards/re-encryption"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.reEncrypted").value(99))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.unrecoverable").value(1))
+                .andExpect(jsonPath("$.unrecoverableCardIds[0]").value(17))
+                .andExpect(jsonPath("$.lastCardId").value(250));
+    }
+
+    @Test
+    void createCards_ValidBatch_ShouldReturnPerItemResults() throws Exception {
+        CreateCardRequestDto card = new CreateCardRequestDto("1234567890123456", "John Doe",
+                LocalDate.now().plusYears(1), new BigDecimal("10.00"), 1L);
+        when(bulkCardIssuanceService.createCards(anyList())).thenReturn(BulkCreateCardsResponseDto.of(List.of(
+                new BulkCardResultDto(0, 101L, "**** **** **** 3456", true, null),
+                BulkCardResultDto.failed(1, "Card with this number already exists"))));
+
+        mockMvc.perform(post("/admin/cards/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BulkCreateCardsRequestDto(List.of(card, card)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.results[0].cardId").value(101))
+                .andExpect(jsonPath("$.results[1].error").value("Card with this number already exists"));
+    }
+
+    @Test
+    void createCards_EmptyBatch_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(post("/admin/cards/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BulkCreateCardsRequestDto(List.of()))))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(bulkCardIssuanceService);
+    }
+}
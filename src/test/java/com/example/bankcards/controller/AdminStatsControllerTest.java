@@ -0,0 +1,43 @@
+package com.example.bankcards.controller;
+
+import com.example.bankcards.util.StatsProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class AdminStatsControllerTest {
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        StatsProvider locks = new StatsProvider() {
+            @Override
+            public String getStatsName() {
+                return "cardLocks";
+            }
+
+            @Override
+            public Map<String, Number> getStats() {
+                return Map.of("timeouts", 3L);
+            }
+        };
+        mockMvc = MockMvcBuilders.standaloneSetup(new AdminStatsController(List.of(locks))).build();
+    }
+
+    @Test
+    void getStats_ShouldReturnStatsGroupedByProvider() throws Exception {
+        mockMvc.perform(get("/admin/stats")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cardLocks.timeouts").value(3));
+    }
+}
@@ -1,8 +1,10 @@
 package com.example.bankcards.controller;
 
 import com.example.bankcards.dto.UserDto;
+import com.example.bankcards.dto.UserImportResultDto;
 import com.example.bankcards.dto.UserUpdateDto;
 import com.example.bankcards.entity.UserRole;
+import com.example.bankcards.service.UserImportService;
 import com.example.bankcards.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -41,6 +43,9 @@ class AdminUserControllerTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private UserImportService userImportService;
+
     @InjectMocks
     private AdminUserController adminUserController;
 
@@ -212,4 +217,41 @@ class AdminUserControllerTest {
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isBadRequest());
     }
-}
\ No newline at end of file
+
+    @Test
+    void importUsers_Csv_ShouldStreamBodyAsCsv() throws Exception {
+        when(userImportService.importUsers(any(), eq(UserImportService.Format.CSV)))
+                .thenReturn(new UserImportResultDto(2, 2, 0, 0, List.of()));
+
+        mockMvc.perform(post("/admin/users/import")
+                        .contentType("text/csv")
+                        .content("username,email,password\nalice,alice@example.com,secret1\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2));
+
+        verify(userImportService).importUsers(any(), eq(UserImportService.Format.CSV));
+    }
+
+    @Test
+    void importUsers_Ndjson_ShouldStreamBodyAsNdjson() throws Exception {
+        when(userImportService.importUsers(any(), eq(UserImportService.Format.NDJSON)))
+                .thenReturn(new UserImportResultDto(1, 0, 1, 0, List.of("line 1: username or email already exists")));
+
+        mockMvc.perform(post("/admin/users/import")
+                        .contentType("application/x-ndjson")
+                        .content("{\"username\":\"alice\",\"email\":\"alice@example.com\",\"password\":\"secret1\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.duplicates").value(1))
+                .andExpect(jsonPath("$.errors[0]").value("line 1: username or email already exists"));
+    }
+
+    @Test
+    void importUsers_UnsupportedContentType_ShouldNotImport() throws Exception {
+        mockMvc.perform(post("/admin/users/import")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content("alice"))
+                .andExpect(status().is4xxClientError());
+
+        verifyNoInteractions(userImportService);
+    }
+}
@@ -1,7 +1,12 @@
 package com.example.bankcards.controller;
 
 import com.example.bankcards.dto.AuthRequestDto;
+import com.example.bankcards.dto.AuthResponseDto;
+import com.example.bankcards.dto.RefreshRequestDto;
 import com.example.bankcards.dto.RegisterRequestDto;
+import com.example.bankcards.exception.GlobalExceptionHandler;
+import com.example.bankcards.exception.TooManyRequestsException;
+import com.example.bankcards.security.AuthRateLimiter;
 import com.example.bankcards.service.AuthService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -14,6 +19,12 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -25,6 +36,9 @@ class AuthControllerTest {
     @Mock
     private AuthService authService;
 
+    @Mock
+    private AuthRateLimiter authRateLimiter;
+
     @InjectMocks
     private AuthController authController;
 
@@ -91,4 +105,64 @@ class AuthControllerTest {
                         .content(objectMapper.writeValueAsString(registerRequest)))
                 .andExpect(status().isUnsupportedMediaType());
     }
-}
\ No newline at end of file
+
+    @Test
+    void login_RateLimited_ShouldReturnTooManyRequestsWithoutAuthenticating() throws Exception {
+        AuthRequestDto authRequest = new AuthRequestDto("testuser", "password123");
+        doThrow(new TooManyRequestsException("Too many authentication attempts for this user, please retry later", 12))
+                .when(authRateLimiter).acquire(anyString(), eq("testuser"));
+        MockMvc mockMvcWithAdvice = MockMvcBuilders.standaloneSetup(authController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+
+        mockMvcWithAdvice.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(authRequest)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "12"));
+
+        verifyNoInteractions(authService);
+    }
+
+    @Test
+    void login_ValidRequest_ShouldPassClientAddressToRateLimiter() throws Exception {
+        AuthRequestDto authRequest = new AuthRequestDto("testuser", "password123");
+        when(authService.authenticate(authRequest))
+                .thenReturn(new AuthResponseDto("jwtToken", "refreshToken", "testuser", "USER"));
+
+        mockMvc.perform(post("/auth/login")
+                        .with(request -> {
+                            request.setRemoteAddr("10.0.0.7");
+                            return request;
+                        })
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(authRequest)))
+                .andExpect(status().isOk());
+
+        verify(authRateLimiter).acquire("10.0.0.7", "testuser");
+    }
+
+    @Test
+    void refresh_ValidToken_ShouldReturnNewTokenPair() throws Exception {
+        RefreshRequestDto request = new RefreshRequestDto("oldRefresh");
+        when(authService.refresh(request))
+                .thenReturn(new AuthResponseDto("jwtToken", "newRefresh", "testuser", "USER"));
+
+        mockMvc.perform(post("/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").value("jwtToken"))
+                .andExpect(jsonPath("$.refreshToken").value("newRefresh"));
+    }
+
+    @Test
+    void refresh_BlankToken_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(post("/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RefreshRequestDto(""))))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(authService);
+    }
+}
@@ -1,10 +1,16 @@
 package com.example.bankcards.controller;
 
+import com.example.bankcards.dto.BatchTransferRequestDto;
+import com.example.bankcards.dto.BatchTransferResponseDto;
 import com.example.bankcards.dto.CardResponseDto;
 import com.example.bankcards.dto.TransferRequestDto;
+import com.example.bankcards.dto.TransferResultDto;
+import com.example.bankcards.dto.TransferStatusDto;
+import com.example.bankcards.entity.PendingTransferStatus;
 import com.example.bankcards.entity.CardStatus;
-import com.example.bankcards.entity.User;
 import com.example.bankcards.entity.UserRole;
+import com.example.bankcards.security.UserPrincipal;
+import com.example.bankcards.service.AsyncTransferService;
 import com.example.bankcards.service.UserCardService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -18,17 +24,20 @@ import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
 import org.springframework.http.MediaType;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.method.annotation.AuthenticationPrincipalArgumentResolver;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.util.Collections;
+import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -41,11 +50,14 @@ class UserCardControllerTest {
     @Mock
     private UserCardService cardService;
 
+    @Mock
+    private AsyncTransferService asyncTransferService;
+
     @InjectMocks
     private UserCardController userCardController;
 
     private ObjectMapper objectMapper;
-    private User testUser;
+    private UserPrincipal testUser;
 
     @BeforeEach
     void setUp() {
@@ -53,19 +65,16 @@ class UserCardControllerTest {
         pageableResolver.setFallbackPageable(PageRequest.of(0, 10));
 
         mockMvc = MockMvcBuilders.standaloneSetup(userCardController)
-                .setCustomArgumentResolvers(pageableResolver)
+                .setCustomArgumentResolvers(pageableResolver, new AuthenticationPrincipalArgumentResolver())
                 .build();
 
         objectMapper = new ObjectMapper();
         objectMapper.findAndRegisterModules();
 
-        testUser = new User();
-        testUser.setId(1L);
-        testUser.setUsername("testuser");
-        testUser.setUserRole(UserRole.USER);
+        testUser = new UserPrincipal(1L, "testuser", UserRole.USER, 0);
 
         Authentication auth = new UsernamePasswordAuthenticationToken(
-                testUser, null, Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"))
+                testUser, null, testUser.getAuthorities()
         );
         SecurityContextHolder.getContext().setAuthentication(auth);
     }
@@ -77,7 +86,7 @@ class UserCardControllerTest {
                 LocalDate.now().plusYears(1), CardStatus.ACTIVE, new BigDecimal("1000.00")
         );
 
-        when(cardService.getCardById(eq(1L), any(User.class))).thenReturn(cardResponse);
+        when(cardService.getCardById(eq(1L), eq(testUser))).thenReturn(cardResponse);
 
         mockMvc.perform(get("/cards/1")
                         .contentType(MediaType.APPLICATION_JSON))
@@ -85,7 +94,7 @@ class UserCardControllerTest {
                 .andExpect(jsonPath("$.id").value(1L))
                 .andExpect(jsonPath("$.cardHolderName").value("John Doe"));
 
-        verify(cardService).getCardById(eq(1L), any(User.class));
+        verify(cardService).getCardById(eq(1L), eq(testUser));
     }
 
     @Test
@@ -99,14 +108,33 @@ class UserCardControllerTest {
     void transferBetweenCards_ValidRequest_ShouldTransfer() throws Exception {
         TransferRequestDto transferRequest = new TransferRequestDto(
                 1L, 2L, new BigDecimal("100.00"), "description");
-        doNothing().when(cardService).transferBetweenCards(any(TransferRequestDto.class), any(User.class));
+        when(cardService.transferBetweenCards(any(TransferRequestDto.class), eq(testUser), isNull()))
+                .thenReturn(true);
 
         mockMvc.perform(post("/cards/transfer")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(transferRequest)))
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"));
+
+        verify(cardService).transferBetweenCards(any(TransferRequestDto.class), eq(testUser), isNull());
+    }
+
+    @Test
+    void transferBetweenCards_ReplayedIdempotencyKey_ShouldMarkResponse() throws Exception {
+        TransferRequestDto transferRequest = new TransferRequestDto(
+                1L, 2L, new BigDecimal("100.00"), "description");
+        when(cardService.transferBetweenCards(any(TransferRequestDto.class), eq(testUser), eq("key-1")))
+                .thenReturn(false);
+
+        mockMvc.perform(post("/cards/transfer")
+                        .header("Idempotency-Key", "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(transferRequest)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Idempotent-Replayed", "true"));
 
-        verify(cardService).transferBetweenCards(any(TransferRequestDto.class), any(User.class));
+        verify(cardService).transferBetweenCards(any(TransferRequestDto.class), eq(testUser), eq("key-1"));
     }
 
     @Test
@@ -119,16 +147,73 @@ class UserCardControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void transferBetweenCards_Async_ShouldReturnAcceptedWithLocation() throws Exception {
+        TransferRequestDto transferRequest = new TransferRequestDto(
+                1L, 2L, new BigDecimal("100.00"), "description");
+        TransferStatusDto accepted = new TransferStatusDto(42L, 1L, 2L, new BigDecimal("100.00"),
+                PendingTransferStatus.PENDING, null, LocalDateTime.now(), null);
+        when(asyncTransferService.submit(any(TransferRequestDto.class), eq(testUser))).thenReturn(accepted);
+
+        mockMvc.perform(post("/cards/transfer")
+                        .param("async", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(transferRequest)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "http://localhost/cards/transfers/42"))
+                .andExpect(jsonPath("$.id").value(42))
+                .andExpect(jsonPath("$.status").value("PENDING"));
+
+        verify(cardService, never()).transferBetweenCards(any(), any(), any());
+    }
+
+    @Test
+    void getTransferStatus_ValidId_ShouldReturnStatus() throws Exception {
+        TransferStatusDto completed = new TransferStatusDto(42L, 1L, 2L, new BigDecimal("100.00"),
+                PendingTransferStatus.COMPLETED, null, LocalDateTime.now(), LocalDateTime.now());
+        when(asyncTransferService.getStatus(eq(42L), eq(testUser))).thenReturn(completed);
+
+        mockMvc.perform(get("/cards/transfers/42"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"));
+    }
+
+    @Test
+    void transferBatch_ValidRequest_ShouldReturnPerItemResults() throws Exception {
+        TransferRequestDto transfer = new TransferRequestDto(1L, 2L, new BigDecimal("100.00"), "salary");
+        BatchTransferResponseDto response = BatchTransferResponseDto.of(List.of(TransferResultDto.succeeded(0, transfer)));
+        when(cardService.transferBatch(anyList(), eq(testUser))).thenReturn(response);
+
+        mockMvc.perform(post("/cards/transfers/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BatchTransferRequestDto(List.of(transfer)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(1))
+                .andExpect(jsonPath("$.results[0].success").value(true));
+
+        verify(cardService).transferBatch(anyList(), eq(testUser));
+    }
+
+    @Test
+    void transferBatch_EmptyBatch_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(post("/cards/transfers/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BatchTransferRequestDto(List.of()))))
+                .andExpect(status().isBadRequest());
+
+        verify(cardService, never()).transferBatch(anyList(), eq(testUser));
+    }
+
     @Test
     void getCardBalance_ValidCardId_ShouldReturnBalance() throws Exception {
-        when(cardService.getCardBalance(eq(1L), any(User.class))).thenReturn(new BigDecimal("1000.00"));
+        when(cardService.getCardBalance(eq(1L), eq(testUser))).thenReturn(new BigDecimal("1000.00"));
 
         mockMvc.perform(get("/cards/1/balance")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(content().string("1000.00"));
 
-        verify(cardService).getCardBalance(eq(1L), any(User.class));
+        verify(cardService).getCardBalance(eq(1L), eq(testUser));
     }
 
     @Test
@@ -140,13 +225,13 @@ class UserCardControllerTest {
 
     @Test
     void requestBlockCard_ValidCardId_ShouldRequestBlock() throws Exception {
-        doNothing().when(cardService).requestBlockCard(eq(1L), any(User.class));
+        doNothing().when(cardService).requestBlockCard(eq(1L), eq(testUser));
 
         mockMvc.perform(post("/cards/1/block-request")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk());
 
-        verify(cardService).requestBlockCard(eq(1L), any(User.class));
+        verify(cardService).requestBlockCard(eq(1L), eq(testUser));
     }
 
     @Test
@@ -0,0 +1,84 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.config.AuthRateLimitProperties;
+import com.example.bankcards.exception.TooManyRequestsException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthRateLimiterTest {
+
+    private AuthRateLimiter limiter(int ipCapacity, int usernameCapacity, int maxBuckets) {
+        return new AuthRateLimiter(new AuthRateLimitProperties(maxBuckets,
+                new AuthRateLimitProperties.BucketLimits(ipCapacity, Duration.ofMinutes(1)),
+                new AuthRateLimitProperties.BucketLimits(usernameCapacity, Duration.ofMinutes(1))));
+    }
+
+    @Test
+    void acquire_WithinBurst_ShouldAllow() {
+        AuthRateLimiter limiter = limiter(10, 3, 100);
+
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire("10.0.0.1", "testuser");
+        }
+
+        assertEquals(3L, limiter.getStats().get("allowed"));
+    }
+
+    @Test
+    void acquire_UsernameBurstExceeded_ShouldRejectWithRetryAfterRegardlessOfCase() {
+        AuthRateLimiter limiter = limiter(10, 2, 100);
+        limiter.acquire("10.0.0.1", "testuser");
+        limiter.acquire("10.0.0.2", "TestUser");
+
+        TooManyRequestsException exception = assertThrows(TooManyRequestsException.class,
+                () -> limiter.acquire("10.0.0.3", "TESTUSER"));
+
+        assertTrue(exception.getRetryAfterSeconds() > 0 && exception.getRetryAfterSeconds() <= 60);
+        assertEquals(1L, limiter.getStats().get("rejectedByUsername"));
+    }
+
+    @Test
+    void acquire_IpBurstExceeded_ShouldRejectAcrossUsernames() {
+        AuthRateLimiter limiter = limiter(2, 10, 100);
+        limiter.acquire("10.0.0.1", "alice");
+        limiter.acquire("10.0.0.1", "bob");
+
+        assertThrows(TooManyRequestsException.class, () -> limiter.acquire("10.0.0.1", "carol"));
+        limiter.acquire("10.0.0.2", "carol");
+
+        assertEquals(1L, limiter.getStats().get("rejectedByIp"));
+        assertEquals(0L, limiter.getStats().get("rejectedByUsername"));
+    }
+
+    @Test
+    void acquire_UsernameRejected_ShouldNotSpendIpBudget() {
+        AuthRateLimiter limiter = limiter(3, 1, 100);
+        limiter.acquire("10.0.0.1", "locked");
+        for (int i = 0; i < 5; i++) {
+            assertThrows(TooManyRequestsException.class, () -> limiter.acquire("10.0.0.1", "locked"));
+        }
+
+        limiter.acquire("10.0.0.1", "alice");
+        limiter.acquire("10.0.0.1", "bob");
+
+        assertEquals(5L, limiter.getStats().get("rejectedByUsername"));
+        assertEquals(0L, limiter.getStats().get("rejectedByIp"));
+        assertThrows(TooManyRequestsException.class, () -> limiter.acquire("10.0.0.1", "carol"));
+    }
+
+    @Test
+    void acquire_ManyClients_ShouldKeepBucketCountBounded() {
+        AuthRateLimiter limiter = limiter(5, 5, 10);
+
+        for (int i = 0; i < 50; i++) {
+            limiter.acquire("10.0.1." + i, "user" + i);
+        }
+
+        assertEquals(10, limiter.getStats().get("ipBuckets"));
+        assertEquals(10, limiter.getStats().get("usernameBuckets"));
+        assertEquals(80L, limiter.getStats().get("evictedBuckets"));
+    }
+}
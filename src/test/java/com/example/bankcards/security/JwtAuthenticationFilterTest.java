@@ -0,0 +1,93 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.UserRole;
+import com.example.bankcards.service.TokenRevocationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    private JwtUtil jwtUtil;
+    private JwtAuthenticationFilter filter;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        SecurityContextHolder.clearContext();
+        jwtUtil = spy(new JwtUtil("test-secret-key-that-is-at-least-32-chars", 60_000L, 100));
+        filter = new JwtAuthenticationFilter(jwtUtil, tokenRevocationService);
+        user = new User();
+        user.setId(1L);
+        user.setUsername("testuser");
+        user.setUserRole(UserRole.USER);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilter_ValidToken_ShouldAuthenticateFromClaimsWithoutLookup() throws Exception {
+        String token = jwtUtil.generateToken(user);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        assertEquals(UserPrincipal.from(user), authentication.getPrincipal());
+        assertEquals("ROLE_USER", authentication.getAuthorities().iterator().next().getAuthority());
+        assertNotNull(chain.getRequest());
+        verify(jwtUtil, times(1)).parseClaims(token);
+        verify(jwtUtil, never()).extractUsername(any());
+        verify(tokenRevocationService).isRevoked(UserPrincipal.from(user));
+    }
+
+    @Test
+    void doFilter_RevokedToken_ShouldNotAuthenticate() throws Exception {
+        String token = jwtUtil.generateToken(user);
+        when(tokenRevocationService.isRevoked(any(UserPrincipal.class))).thenReturn(true);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertNotNull(chain.getRequest());
+    }
+
+    @Test
+    void doFilter_InvalidToken_ShouldNotAuthenticate() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer invalid");
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertNotNull(chain.getRequest());
+        verifyNoInteractions(tokenRevocationService);
+    }
+}
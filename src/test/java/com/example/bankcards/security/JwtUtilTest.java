@@ -0,0 +1,193 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.UserRole;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class JwtUtilTest {
+
+    private static final String SECRET = "test-secret-key-that-is-at-least-32-chars";
+
+    private JwtUtil jwtUtil;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil(SECRET, 60_000L, 100);
+        user = new User();
+        user.setId(1L);
+        user.setUsername("testuser");
+        user.setUserRole(UserRole.USER);
+        user.setTokenVersion(3L);
+    }
+
+    @Test
+    void parsePrincipal_ValidToken_ShouldRestorePrincipalFromClaims() {
+        String token = jwtUtil.generateToken(user);
+
+        Optional<UserPrincipal> principal = jwtUtil.parsePrincipal(token);
+
+        assertTrue(principal.isPresent());
+        assertEquals(new UserPrincipal(1L, "testuser", UserRole.USER, 3L), principal.get());
+    }
+
+    @Test
+    void parsePrincipal_RepeatedToken_ShouldSkipVerificationOnCacheHit() {
+        JwtUtil spied = spy(jwtUtil);
+        String token = jwtUtil.generateToken(user);
+
+        UserPrincipal first = spied.parsePrincipal(token).orElseThrow();
+        UserPrincipal second = spied.parsePrincipal(token).orElseThrow();
+
+        assertEquals(first, second);
+        verify(spied, times(1)).parseClaims(token);
+        assertEquals(1L, jwtUtil.getStats().get("hits"));
+        assertEquals(0.5, jwtUtil.getStats().get("hitRatio"));
+    }
+
+    @Test
+    void parsePrincipal_TamperedCopyOfCachedToken_ShouldStillBeRejected() {
+        String token = jwtUtil.generateToken(user);
+        jwtUtil.parsePrincipal(token);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertTrue(jwtUtil.parsePrincipal(tampered).isEmpty());
+    }
+
+    @Test
+    void parsePrincipal_CachedEntry_ShouldNotOutliveToken() throws Exception {
+        JwtUtil shortLived = new JwtUtil(SECRET, 2_000L, 100);
+        String token = shortLived.generateToken(user);
+        assertTrue(shortLived.parsePrincipal(token).isPresent());
+
+        Thread.sleep(2_100L);
+
+        assertTrue(shortLived.parsePrincipal(token).isEmpty());
+    }
+
+    @Test
+    void parsePrincipal_ConcurrentLookups_ShouldResolveEveryTokenToItsOwnPrincipal() throws Exception {
+        int threads = 8;
+        int rounds = 200;
+        JwtUtil cachingUtil = new JwtUtil(SECRET, 60_000L, 10_000);
+        List<String> tokens = new ArrayList<>();
+        List<UserPrincipal> expected = new ArrayList<>();
+        for (long id = 1; id <= 50; id++) {
+            User tokenUser = new User();
+            tokenUser.setId(id);
+            tokenUser.setUsername("user" + id);
+            tokenUser.setUserRole(UserRole.USER);
+            tokenUser.setTokenVersion(0L);
+            tokens.add(cachingUtil.generateToken(tokenUser));
+            expected.add(new UserPrincipal(id, "user" + id, UserRole.USER, 0L));
+        }
+        List<Callable<Integer>> lookups = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int offset = t;
+            lookups.add(() -> {
+                int mismatches = 0;
+                for (int round = 0; round < rounds; round++) {
+                    int index = (offset + round) % tokens.size();
+                    if (!expected.get(index).equals(cachingUtil.parsePrincipal(tokens.get(index)).orElse(null))) {
+                        mismatches++;
+                    }
+                }
+                return mismatches;
+            });
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (Future<Integer> result : executor.invokeAll(lookups)) {
+                assertEquals(0, result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long hits = cachingUtil.getStats().get("hits").longValue();
+        long misses = cachingUtil.getStats().get("misses").longValue();
+        assertEquals((long) threads * rounds, hits + misses);
+        assertTrue(hits >= (long) threads * rounds - tokens.size() * threads);
+        assertEquals(tokens.size(), cachingUtil.getStats().get("cached").intValue());
+    }
+
+    @Test
+    void parsePrincipal_TokenWithoutPrincipalClaims_ShouldReturnEmpty() {
+        String token = Jwts.builder()
+                .setSubject("testuser")
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+
+        assertTrue(jwtUtil.parseClaims(token).isPresent());
+        assertTrue(jwtUtil.parsePrincipal(token).isEmpty());
+    }
+
+    @Test
+    void parseClaims_ValidToken_ShouldReturnClaims() {
+        String token = jwtUtil.generateToken(user);
+
+        Optional<Claims> claims = jwtUtil.parseClaims(token);
+
+        assertTrue(claims.isPresent());
+        assertEquals("testuser", claims.get().getSubject());
+        assertTrue(jwtUtil.validateToken(token, user));
+    }
+
+    @Test
+    void parseClaims_TamperedToken_ShouldReturnEmpty() {
+        String token = jwtUtil.generateToken(user);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertTrue(jwtUtil.parseClaims(tampered).isEmpty());
+        assertFalse(jwtUtil.validateToken(tampered));
+    }
+
+    @Test
+    void parseClaims_ExpiredToken_ShouldReturnEmpty() {
+        String token = new JwtUtil(SECRET, -1_000L, 100).generateToken(user);
+
+        assertTrue(jwtUtil.parseClaims(token).isEmpty());
+    }
+
+    @Test
+    void parseClaims_TokenSignedWithOtherKey_ShouldReturnEmpty() {
+        String token = new JwtUtil("another-secret-key-that-is-at-least-32-chars", 60_000L, 100).generateToken(user);
+
+        assertTrue(jwtUtil.parseClaims(token).isEmpty());
+    }
+
+    @Test
+    void validateToken_OtherUser_ShouldReturnFalse() {
+        String token = jwtUtil.generateToken(user);
+        User other = new User();
+        other.setUsername("other");
+        other.setUserRole(UserRole.USER);
+
+        assertFalse(jwtUtil.validateToken(token, other));
+    }
+
+    @Test
+    void parseClaims_Garbage_ShouldReturnEmpty() {
+        assertTrue(jwtUtil.parseClaims("not-a-jwt").isEmpty());
+        assertTrue(jwtUtil.parseClaims("").isEmpty());
+    }
+}
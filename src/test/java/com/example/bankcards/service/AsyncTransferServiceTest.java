@@ -0,0 +1,267 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.TransferRequestDto;
+import com.example.bankcards.dto.TransferStatusDto;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.PendingTransfer;
+import com.example.bankcards.entity.PendingTransferStatus;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.UserRole;
+import com.example.bankcards.exception.OperationNotAllowedException;
+import com.example.bankcards.exception.TransferLimitExceededException;
+import com.example.bankcards.exception.TransferNotFoundException;
+import com.example.bankcards.exception.TransferQueueFullException;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.CardTransactionRepository;
+import com.example.bankcards.repository.PendingTransferRepository;
+import com.example.bankcards.security.UserPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncTransferServiceTest {
+
+    @Mock
+    private PendingTransferRepository pendingTransferRepository;
+
+    @Mock
+    private CardTransferProcessor cardTransferProcessor;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private CardRepository cardRepository;
+
+    @Mock
+    private CardTransactionRepository cardTransactionRepository;
+
+    @Mock
+    private TransferLimitService transferLimitService;
+
+    private AsyncTransferServiceImpl asyncTransferService;
+    private UserPrincipal testUser;
+    private long nextId;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().when(pendingTransferRepository.save(any(PendingTransfer.class))).thenAnswer(invocation -> {
+            PendingTransfer transfer = invocation.getArgument(0);
+            transfer.setId(++nextId);
+            return transfer;
+        });
+        asyncTransferService = new AsyncTransferServiceImpl(pendingTransferRepository, cardTransferProcessor,
+                transactionTemplate, 2, 1, 100, 3, Duration.ofMinutes(1));
+
+        testUser = new UserPrincipal(1L, "testuser", UserRole.USER, 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void submit_ShouldPersistPendingTransferAndReturnId() {
+        TransferStatusDto result = asyncTransferService.submit(request("100.00"), testUser);
+
+        assertEquals(1L, result.id());
+        assertEquals(PendingTransferStatus.PENDING, result.status());
+        verify(pendingTransferRepository).save(argThat(transfer ->
+                transfer.getUserId().equals(1L) && transfer.getAmount().equals(new BigDecimal("100.00"))));
+        assertEquals(1, asyncTransferService.getStats().get("queued"));
+    }
+
+    @Test
+    void submit_QueueFull_ShouldRejectWithoutPersisting() {
+        asyncTransferService.submit(request("1.00"), testUser);
+        asyncTransferService.submit(request("2.00"), testUser);
+
+        assertThrows(TransferQueueFullException.class,
+                () -> asyncTransferService.submit(request("3.00"), testUser));
+        verify(pendingTransferRepository, times(2)).save(any(PendingTransfer.class));
+        assertEquals(1L, asyncTransferService.getStats().get("rejected"));
+    }
+
+    @Test
+    void processBatch_ShouldApplyTransfersInOnePassAndRecordOutcomes() {
+        PendingTransfer ok = pending(1L, "100.00");
+        PendingTransfer tooMuch = pending(2L, "5000.00");
+        when(pendingTransferRepository.findAllByIdForProcessing(List.of(1L, 2L), PendingTransferStatus.PENDING))
+                .thenReturn(List.of(ok, tooMuch));
+        when(cardTransferProcessor.transferLocked(anyList(), eq(List.of(1L, 1L))))
+                .thenReturn(Arrays.asList(null, "Insufficient funds on source card"));
+
+        asyncTransferService.processBatch(List.of(1L, 2L));
+
+        verify(cardTransferProcessor, times(1)).transferLocked(anyList(), anyList());
+        assertEquals(PendingTransferStatus.COMPLETED, ok.getStatus());
+        assertNotNull(ok.getProcessedAt());
+        assertEquals(PendingTransferStatus.FAILED, tooMuch.getStatus());
+        assertEquals("Insufficient funds on source card", tooMuch.getError());
+        assertEquals(1L, asyncTransferService.getStats().get("completed"));
+        assertEquals(1L, asyncTransferService.getStats().get("failed"));
+    }
+
+    @Test
+    void processBatch_OverLimitTransfer_ShouldFailWithoutTouchingBalances() {
+        User owner = new User();
+        owner.setId(1L);
+        owner.setUserRole(UserRole.USER);
+        Card fromCard = card(1L, owner, "1000.00");
+        Card toCard = card(2L, owner, "0.00");
+        AsyncTransferServiceImpl service = new AsyncTransferServiceImpl(pendingTransferRepository,
+                new CardTransferProcessor(cardRepository, cardTransactionRepository, transferLimitService),
+                transactionTemplate, 2, 1, 100, 3, Duration.ofMinutes(1));
+        PendingTransfer overLimit = pending(1L, "600.00");
+        when(pendingTransferRepository.findAllByIdForProcessing(List.of(1L), PendingTransferStatus.PENDING))
+                .thenReturn(List.of(overLimit));
+        when(cardRepository.findAllByIdForUpdate(any())).thenReturn(List.of(fromCard, toCard));
+        when(transferLimitService.reserve(1L, UserRole.USER, new BigDecimal("600.00")))
+                .thenThrow(new TransferLimitExceededException("Transfer amount exceeds the per-transaction limit of 500.00"));
+
+        TransactionSynchronizationManager.initSynchronization();
+        service.processBatch(List.of(1L));
+
+        assertEquals(PendingTransferStatus.FAILED, overLimit.getStatus());
+        assertEquals("Transfer amount exceeds the per-transaction limit of 500.00", overLimit.getError());
+        assertEquals(new BigDecimal("1000.00"), fromCard.getBalance());
+        assertEquals(new BigDecimal("0.00"), toCard.getBalance());
+    }
+
+    @Test
+    void processOrIsolate_FailingBatch_ShouldRetryItemsOneByOneAndCountAttemptOfBadRow() {
+        PendingTransfer ok = pending(1L, "100.00");
+        PendingTransfer bad = pending(2L, "0.001");
+        when(pendingTransferRepository.findAllByIdForProcessing(List.of(1L, 2L), PendingTransferStatus.PENDING))
+                .thenReturn(List.of(ok, bad));
+        when(pendingTransferRepository.findAllByIdForProcessing(List.of(1L), PendingTransferStatus.PENDING))
+                .thenReturn(List.of(ok));
+        when(pendingTransferRepository.findAllByIdForProcessing(List.of(2L), PendingTransferStatus.PENDING))
+                .thenReturn(List.of(bad));
+        when(cardTransferProcessor.transferLocked(anyList(), anyList())).thenAnswer(invocation -> {
+            List<TransferRequestDto> requests = invocation.getArgument(0);
+            if (requests.stream().anyMatch(request -> request.amount().scale() > 2)) {
+                throw new ArithmeticException("Rounding necessary");
+            }
+            return Arrays.asList(new String[requests.size()]);
+        });
+        when(pendingTransferRepository.failIfExhausted(eq(2L), eq(3), anyString(), any())).thenReturn(0);
+
+        asyncTransferService.processOrIsolate(List.of(1L, 2L));
+
+        assertEquals(PendingTransferStatus.COMPLETED, ok.getStatus());
+        assertEquals(PendingTransferStatus.PENDING, bad.getStatus());
+        verify(pendingTransferRepository).incrementAttempts(2L);
+        verify(pendingTransferRepository, never()).incrementAttempts(1L);
+        assertEquals(1L, asyncTransferService.getStats().get("completed"));
+        assertEquals(0L, asyncTransferService.getStats().get("failed"));
+        assertEquals(1L, asyncTransferService.getStats().get("batchErrors"));
+    }
+
+    @Test
+    void processOrIsolate_AttemptsExhausted_ShouldMarkTransferFailed() {
+        when(pendingTransferRepository.findAllByIdForProcessing(List.of(2L), PendingTransferStatus.PENDING))
+                .thenThrow(new IllegalStateException("boom"));
+        when(pendingTransferRepository.failIfExhausted(eq(2L), eq(3), eq("Transfer could not be processed after 3 attempts"), any()))
+                .thenReturn(1);
+
+        asyncTransferService.processOrIsolate(List.of(2L));
+
+        verify(pendingTransferRepository).incrementAttempts(2L);
+        assertEquals(1L, asyncTransferService.getStats().get("failed"));
+    }
+
+    @Test
+    void processBatch_AlreadyClaimedElsewhere_ShouldSkip() {
+        when(pendingTransferRepository.findAllByIdForProcessing(List.of(1L), PendingTransferStatus.PENDING))
+                .thenReturn(List.of());
+
+        asyncTransferService.processBatch(List.of(1L));
+
+        verifyNoInteractions(cardTransferProcessor);
+    }
+
+    @Test
+    void recoverPending_ShouldRequeueStalePendingTransfers() {
+        when(pendingTransferRepository.findIdsByStatusCreatedBefore(eq(PendingTransferStatus.PENDING), any(), any()))
+                .thenReturn(List.of(7L, 8L, 9L));
+
+        assertEquals(2, asyncTransferService.recoverPending());
+        assertEquals(2, asyncTransferService.getStats().get("queued"));
+    }
+
+    @Test
+    void recoverPending_AlreadyQueuedTransfers_ShouldNotBeQueuedAgain() {
+        TransferStatusDto queued = asyncTransferService.submit(request("100.00"), testUser);
+        when(pendingTransferRepository.findIdsByStatusCreatedBefore(eq(PendingTransferStatus.PENDING), any(), any()))
+                .thenReturn(List.of(queued.id(), 9L));
+
+        assertEquals(1, asyncTransferService.recoverPending());
+        assertEquals(0, asyncTransferService.recoverPending());
+        assertEquals(2, asyncTransferService.getStats().get("queued"));
+        assertEquals(2, asyncTransferService.getStats().get("inFlight"));
+    }
+
+    @Test
+    void getStatus_OtherUsersTransfer_ShouldThrowException() {
+        PendingTransfer transfer = pending(1L, "100.00");
+        transfer.setUserId(3L);
+        when(pendingTransferRepository.findById(1L)).thenReturn(Optional.of(transfer));
+
+        assertThrows(OperationNotAllowedException.class, () -> asyncTransferService.getStatus(1L, testUser));
+    }
+
+    @Test
+    void getStatus_UnknownTransfer_ShouldThrowException() {
+        when(pendingTransferRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(TransferNotFoundException.class, () -> asyncTransferService.getStatus(1L, testUser));
+    }
+
+    private static TransferRequestDto request(String amount) {
+        return new TransferRequestDto(1L, 2L, new BigDecimal(amount), "desc");
+    }
+
+    private PendingTransfer pending(Long id, String amount) {
+        PendingTransfer transfer = PendingTransfer.of(request(amount), testUser.getId());
+        transfer.setId(id);
+        return transfer;
+    }
+
+    private static Card card(Long id, User owner, String balance) {
+        Card card = new Card();
+        card.setId(id);
+        card.setExpirationDate(LocalDate.now().plusYears(1));
+        card.setBalance(new BigDecimal(balance));
+        card.setStatus(CardStatus.ACTIVE);
+        card.setUser(owner);
+        return card;
+    }
+}
@@ -2,9 +2,11 @@ package com.example.bankcards.service;
 
 import com.example.bankcards.dto.AuthRequestDto;
 import com.example.bankcards.dto.AuthResponseDto;
+import com.example.bankcards.dto.RefreshRequestDto;
 import com.example.bankcards.dto.RegisterRequestDto;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.entity.UserRole;
+import com.example.bankcards.exception.TooManyRequestsException;
 import com.example.bankcards.exception.UserAlreadyExistsException;
 import com.example.bankcards.repository.UserRepository;
 import com.example.bankcards.security.JwtUtil;
@@ -15,7 +17,6 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.Optional;
 
@@ -30,7 +31,7 @@ class AuthServiceTest {
     private UserRepository userRepository;
 
     @Mock
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
 
     @Mock
     private AuthenticationManager authenticationManager;
@@ -38,6 +39,9 @@ class AuthServiceTest {
     @Mock
     private JwtUtil jwtUtil;
 
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
     @InjectMocks
     private AuthServiceImpl authService;
 
@@ -52,7 +56,7 @@ class AuthServiceTest {
         savedUser.setUserRole(UserRole.USER);
 
         when(userRepository.existsByEmail("test@email.com")).thenReturn(false);
-        when(passwordEncoder.encode("password")).thenReturn("encodedPassword");
+        when(passwordHashingService.encode("password")).thenReturn("encodedPassword");
         when(userRepository.save(any(User.class))).thenReturn(savedUser);
         when(jwtUtil.generateToken(savedUser)).thenReturn("jwtToken");
 
@@ -93,17 +97,19 @@ class AuthServiceTest {
         user.setUserRole(UserRole.USER);
 
         when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
-        when(passwordEncoder.matches("password", "encodedPassword")).thenReturn(true);
+        when(passwordHashingService.matches("password", "encodedPassword")).thenReturn(true);
         when(jwtUtil.generateToken(user)).thenReturn("jwtToken");
+        when(refreshTokenService.issue(user)).thenReturn("refreshToken");
 
         AuthResponseDto response = authService.authenticate(request);
 
         assertNotNull(response);
         assertEquals("jwtToken", response.token());
+        assertEquals("refreshToken", response.refreshToken());
         assertEquals("testuser", response.username());
         assertEquals("USER", response.role());
         verify(userRepository).findByUsername("testuser");
-        verify(passwordEncoder).matches("password", "encodedPassword");
+        verify(passwordHashingService).matches("password", "encodedPassword");
         verify(jwtUtil).generateToken(user);
     }
 
@@ -119,7 +125,7 @@ class AuthServiceTest {
 
         assertEquals("User not found", exception.getMessage());
         verify(userRepository).findByUsername("nonexistent");
-        verify(passwordEncoder, never()).matches(any(), any());
+        verify(passwordHashingService, never()).matches(any(), any());
     }
 
     @Test
@@ -133,7 +139,7 @@ class AuthServiceTest {
         user.setUserRole(UserRole.USER);
 
         when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
-        when(passwordEncoder.matches("wrongpassword", "encodedPassword")).thenReturn(false);
+        when(passwordHashingService.matches("wrongpassword", "encodedPassword")).thenReturn(false);
 
         BadCredentialsException exception = assertThrows(
                 BadCredentialsException.class,
@@ -142,10 +148,85 @@ class AuthServiceTest {
 
         assertEquals("Invalid password", exception.getMessage());
         verify(userRepository).findByUsername("testuser");
-        verify(passwordEncoder).matches("wrongpassword", "encodedPassword");
+        verify(passwordHashingService).matches("wrongpassword", "encodedPassword");
         verify(jwtUtil, never()).generateToken(any());
     }
 
+    @Test
+    void authenticate_WeakerStoredHash_ShouldRehashWithConfiguredCost() {
+        AuthRequestDto request = new AuthRequestDto("testuser", "password");
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("testuser");
+        user.setPassword("weakHash");
+        user.setUserRole(UserRole.USER);
+
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(passwordHashingService.matches("password", "weakHash")).thenReturn(true);
+        when(passwordHashingService.needsRehash("weakHash")).thenReturn(true);
+        when(passwordHashingService.encode("password")).thenReturn("strongHash");
+
+        authService.authenticate(request);
+
+        verify(userRepository).replacePassword(1L, "weakHash", "strongHash");
+    }
+
+    @Test
+    void authenticate_ShouldPropagateTooManyRequests_WhenHashingQueueIsFull() {
+        AuthRequestDto request = new AuthRequestDto("testuser", "password");
+        User user = new User();
+        user.setUsername("testuser");
+        user.setPassword("encodedPassword");
+
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(passwordHashingService.matches("password", "encodedPassword"))
+                .thenThrow(new TooManyRequestsException("Too many authentication requests, please retry later", 1));
+
+        assertThrows(TooManyRequestsException.class, () -> authService.authenticate(request));
+        verifyNoInteractions(jwtUtil, refreshTokenService);
+    }
+
+    @Test
+    void authenticate_ShouldThrowBadCredentialsException_WhenUserBlocked() {
+        AuthRequestDto request = new AuthRequestDto("testuser", "password");
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("testuser");
+        user.setPassword("encodedPassword");
+        user.setUserRole(UserRole.USER);
+        user.setEnabled(false);
+
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(passwordHashingService.matches("password", "encodedPassword")).thenReturn(true);
+
+        BadCredentialsException exception = assertThrows(
+                BadCredentialsException.class,
+                () -> authService.authenticate(request)
+        );
+
+        assertEquals("User is blocked", exception.getMessage());
+        verify(jwtUtil, never()).generateToken(any());
+        verifyNoInteractions(refreshTokenService);
+    }
+
+    @Test
+    void refresh_ShouldIssueNewTokenPairFromRotation() {
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("testuser");
+        user.setUserRole(UserRole.USER);
+
+        when(refreshTokenService.rotate("oldRefresh"))
+                .thenReturn(new RefreshTokenService.Rotation(user, "newRefresh"));
+        when(jwtUtil.generateToken(user)).thenReturn("jwtToken");
+
+        AuthResponseDto response = authService.refresh(new RefreshRequestDto("oldRefresh"));
+
+        assertEquals("jwtToken", response.token());
+        assertEquals("newRefresh", response.refreshToken());
+        assertEquals("testuser", response.username());
+    }
+
     @Test
     void createAuthResponse_ShouldCreateCorrectResponse() {
         RegisterRequestDto request = new RegisterRequestDto("testuser", "test@email.com", "password");
@@ -155,7 +236,7 @@ class AuthServiceTest {
         user.setUserRole(UserRole.ADMIN);
 
         when(userRepository.existsByEmail("test@email.com")).thenReturn(false);
-        when(passwordEncoder.encode("password")).thenReturn("encodedPassword");
+        when(passwordHashingService.encode("password")).thenReturn("encodedPassword");
         when(userRepository.save(any(User.class))).thenReturn(user);
         when(jwtUtil.generateToken(user)).thenReturn("testToken");
 
@@ -167,7 +248,7 @@ class AuthServiceTest {
         assertEquals("ADMIN", response.role());
 
         verify(userRepository).existsByEmail("test@email.com");
-        verify(passwordEncoder).encode("password");
+        verify(passwordHashingService).encode("password");
         verify(userRepository).save(any(User.class));
         verify(jwtUtil).generateToken(user);
     }
@@ -0,0 +1,152 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.BulkCardResultDto;
+import com.example.bankcards.dto.BulkCreateCardsResponseDto;
+import com.example.bankcards.dto.CreateCardRequestDto;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardTransaction;
+import com.example.bankcards.entity.TransactionType;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.CardTransactionRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.util.CardBlindIndex;
+import com.example.bankcards.util.CardEncryptionUtil;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkCardIssuanceServiceTest {
+
+    private static final String KEY = "card-encryption-key-32-chars-123";
+
+    @Mock
+    private CardRepository cardRepository;
+
+    @Mock
+    private CardTransactionRepository cardTransactionRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final CardEncryptionUtil encryptionUtil = new CardEncryptionUtil(KEY);
+    private final CardBlindIndex blindIndex = new CardBlindIndex("card-blind-index-key-for-tests-32b");
+    private final AtomicLong ids = new AtomicLong(100);
+    private BulkCardIssuanceServiceImpl issuanceService;
+
+    @BeforeEach
+    void setUp() {
+        issuanceService = new BulkCardIssuanceServiceImpl(cardRepository, cardTransactionRepository, userRepository,
+                encryptionUtil, blindIndex, transactionTemplate,
+                Validation.buildDefaultValidatorFactory().getValidator(), 2, 2);
+        User user = new User();
+        user.setId(1L);
+        lenient().when(userRepository.findAllById(anyList())).thenReturn(List.of(user));
+        lenient().when(cardRepository.findExistingHashes(anyCollection())).thenReturn(List.of());
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().when(cardRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Card> cards = invocation.getArgument(0);
+            cards.forEach(card -> card.setId(ids.incrementAndGet()));
+            return cards;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        issuanceService.shutdown();
+    }
+
+    @Test
+    void createCards_ShouldInsertValidCardsInChunksAndReportFailuresPerItem() {
+        when(cardRepository.findExistingHashes(anyCollection()))
+                .thenReturn(List.of(blindIndex.compute("5555666677778888")));
+        List<CreateCardRequestDto> requests = Arrays.asList(
+                request("1234567890123456", 1L),
+                request("12345", 1L),
+                request("4000001234567899", 99L),
+                request("1234567890123456", 1L),
+                null,
+                request("5555666677778888", 1L),
+                request("4111111111111111", 1L),
+                request("4222222222222222", 1L));
+
+        BulkCreateCardsResponseDto response = issuanceService.createCards(requests);
+
+        assertEquals(3, response.succeeded());
+        assertEquals(5, response.failed());
+        List<BulkCardResultDto> results = response.results();
+        assertTrue(results.get(0).success());
+        assertEquals("**** **** **** 3456", results.get(0).maskedCardNumber());
+        assertEquals("Номер карты должен содержать от 16 до 19 цифр", results.get(1).error());
+        assertEquals("User not found with id: 99", results.get(2).error());
+        assertEquals("Duplicate card number, same as item 0", results.get(3).error());
+        assertEquals("Card request is missing", results.get(4).error());
+        assertEquals("Card with this number already exists", results.get(5).error());
+        assertTrue(results.get(6).success());
+        assertTrue(results.get(7).success());
+
+        ArgumentCaptor<List<Card>> saved = ArgumentCaptor.forClass(List.class);
+        verify(cardRepository, times(2)).saveAll(saved.capture());
+        Card first = saved.getAllValues().get(0).get(0);
+        assertEquals("1234567890123456", encryptionUtil.decrypt(first.getCardNumber()));
+        assertEquals(blindIndex.compute("1234567890123456"), first.getCardNumberHash());
+        assertEquals(1, first.getKeyVersion());
+        ArgumentCaptor<List<CardTransaction>> journal = ArgumentCaptor.forClass(List.class);
+        verify(cardTransactionRepository, times(2)).saveAll(journal.capture());
+        assertTrue(journal.getAllValues().stream().flatMap(List::stream)
+                .allMatch(entry -> entry.getType() == TransactionType.OPENING_BALANCE));
+    }
+
+    @Test
+    void createCards_ChunkConflict_ShouldRetryItemsOneByOne() {
+        List<Integer> chunkSizes = new ArrayList<>();
+        when(cardRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Card> cards = invocation.getArgument(0);
+            chunkSizes.add(cards.size());
+            if (cards.size() > 1 || "1111".equals(cards.get(0).getCardLast4())) {
+                throw new DataIntegrityViolationException("uk_bank_cards_card_number_hash");
+            }
+            cards.forEach(card -> card.setId(ids.incrementAndGet()));
+            return cards;
+        });
+
+        BulkCreateCardsResponseDto response = issuanceService.createCards(List.of(
+                request("1234567890123456", 1L), request("4111111111111111", 1L)));
+
+        assertEquals(List.of(2, 1, 1), chunkSizes);
+        assertTrue(response.results().get(0).success());
+        assertFalse(response.results().get(1).success());
+        assertEquals("Card could not be saved: conflicting data", response.results().get(1).error());
+    }
+
+    private static CreateCardRequestDto request(String cardNumber, Long userId) {
+        return new CreateCardRequestDto(cardNumber, "John Doe", LocalDate.now().plusYears(2),
+                new BigDecimal("10.00"), userId);
+    }
+}
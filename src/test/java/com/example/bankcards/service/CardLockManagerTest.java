@@ -0,0 +1,82 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.exception.CardLockTimeoutException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CardLockManagerTest {
+
+    @Test
+    void withCardLocks_ShouldReturnActionResult() {
+        CardLockManager lockManager = new CardLockManager(16, Duration.ofSeconds(1));
+
+        assertEquals("done", lockManager.withCardLocks(1L, 2L, () -> "done"));
+        assertEquals("same", lockManager.withCardLocks(3L, 3L, () -> "same"));
+        assertEquals(3L, lockManager.getStats().get("acquisitions"));
+    }
+
+    @Test
+    void withCardLocks_CardHeldByAnotherTransfer_ShouldTimeOut() throws Exception {
+        CardLockManager lockManager = new CardLockManager(16, Duration.ofMillis(50));
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> holder = executor.submit(() -> lockManager.withCardLocks(1L, 2L, () -> {
+                locked.countDown();
+                await(release);
+                return null;
+            }));
+            assertTrue(locked.await(1, TimeUnit.SECONDS));
+
+            assertThrows(CardLockTimeoutException.class,
+                    () -> lockManager.withCardLocks(2L, 5L, () -> "blocked"));
+
+            release.countDown();
+            holder.get(1, TimeUnit.SECONDS);
+            assertEquals("free", lockManager.withCardLocks(2L, 5L, () -> "free"));
+            assertEquals(1L, lockManager.getStats().get("timeouts"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void withCardLocks_OppositeDirections_ShouldNotDeadlock() throws Exception {
+        CardLockManager lockManager = new CardLockManager(1024, Duration.ofSeconds(5));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> forward = executor.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    lockManager.withCardLocks(1L, 2L, () -> null);
+                }
+            });
+            Future<?> backward = executor.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    lockManager.withCardLocks(2L, 1L, () -> null);
+                }
+            });
+            forward.get(10, TimeUnit.SECONDS);
+            backward.get(10, TimeUnit.SECONDS);
+            assertEquals(0L, lockManager.getStats().get("timeouts"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
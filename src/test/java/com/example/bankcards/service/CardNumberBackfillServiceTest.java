@@ -0,0 +1,100 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.util.CardBlindIndex;
+import com.example.bankcards.util.CardEncryptionUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CardNumberBackfillServiceTest {
+
+    private static final String KEY = "card-encryption-key-32-chars-123";
+
+    @Mock
+    private CardRepository cardRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final CardEncryptionUtil encryptionUtil = new CardEncryptionUtil(KEY);
+    private final CardBlindIndex blindIndex = new CardBlindIndex("card-blind-index-key-for-tests-32b");
+    private CardNumberBackfillServiceImpl backfillService;
+
+    @BeforeEach
+    void setUp() {
+        backfillService = new CardNumberBackfillServiceImpl(cardRepository, encryptionUtil, blindIndex, transactionTemplate, 2);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void backfill_ShouldWalkBatchesByIdAndSkipUndecryptableRows() {
+        when(cardRepository.findWithoutNumberParts(0L, PageRequest.of(0, 2))).thenReturn(List.of(
+                encrypted(1L, encryptionUtil.encrypt("1234567890123456"), null, null),
+                encrypted(2L, "not-a-ciphertext", null, null)));
+        when(cardRepository.findWithoutNumberParts(2L, PageRequest.of(0, 2))).thenReturn(List.of(
+                encrypted(5L, encryptionUtil.encrypt("4000001234567899"), "7899", null)));
+        when(cardRepository.setNumberParts(anyLong(), anyString(), anyString())).thenReturn(1);
+        when(cardRepository.setNumberHash(anyLong(), anyString())).thenReturn(1);
+
+        int updated = backfillService.backfill();
+
+        assertEquals(2, updated);
+        verify(cardRepository).setNumberParts(1L, "3456", "123456");
+        verify(cardRepository).setNumberHash(1L, blindIndex.compute("1234567890123456"));
+        verify(cardRepository, never()).setNumberParts(eq(5L), any(), any());
+        verify(cardRepository).setNumberHash(5L, blindIndex.compute("4000001234567899"));
+        verify(cardRepository, never()).setNumberParts(eq(2L), any(), any());
+        verify(cardRepository, never()).setNumberHash(eq(2L), any());
+        verify(cardRepository, times(2)).findWithoutNumberParts(anyLong(), any());
+    }
+
+    @Test
+    void backfill_DuplicateNumber_ShouldLeaveBlindIndexEmpty() {
+        when(cardRepository.findWithoutNumberParts(0L, PageRequest.of(0, 2))).thenReturn(List.of(
+                encrypted(3L, encryptionUtil.encrypt("1234567890123456"), "3456", null)));
+        when(cardRepository.setNumberHash(anyLong(), anyString())).thenReturn(0);
+
+        assertEquals(0, backfillService.backfill());
+    }
+
+    private static CardRepository.EncryptedNumber encrypted(Long id, String cardNumber,
+                                                            String cardLast4, String cardNumberHash) {
+        return new CardRepository.EncryptedNumber() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getCardNumber() {
+                return cardNumber;
+            }
+
+            @Override
+            public String getCardLast4() {
+                return cardLast4;
+            }
+
+            @Override
+            public String getCardNumberHash() {
+                return cardNumberHash;
+            }
+        };
+    }
+}
@@ -0,0 +1,212 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.ReEncryptionStatusDto;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.util.CardEncryptionUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CardReEncryptionServiceTest {
+
+    private static final String OLD_KEY = "card-encryption-key-32-chars-123";
+    private static final String NEW_KEY = "rotated-encryption-key-32-chars!";
+
+    @Mock
+    private CardRepository cardRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final CardEncryptionUtil oldEncryption = new CardEncryptionUtil(OLD_KEY);
+    private final CardEncryptionUtil rotatedEncryption = new CardEncryptionUtil(Map.of(1, OLD_KEY, 2, NEW_KEY), 2);
+    private CardReEncryptionServiceImpl reEncryptionService;
+    private final List<Object[]> written = new ArrayList<>();
+    private final List<Object[]> marked = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        reEncryptionService = new CardReEncryptionServiceImpl(cardRepository, rotatedEncryption, jdbcTemplate,
+                transactionTemplate, 2, 2, false);
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            List<Object[]> rows = invocation.getArgument(1);
+            String sql = invocation.getArgument(0);
+            (sql.contains("key_error_version = ? ") ? marked : written).addAll(rows);
+            int[] counts = new int[rows.size()];
+            java.util.Arrays.fill(counts, 1);
+            return counts;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        reEncryptionService.shutdown();
+    }
+
+    @Test
+    void run_ShouldReEncryptChunksWithActiveKeyAndSkipUndecryptableRows() {
+        String first = oldEncryption.encrypt("1234567890123456");
+        String second = oldEncryption.encrypt("4000001234567899");
+        String third = oldEncryption.encrypt("5555666677778888");
+        when(cardRepository.countByKeyVersionNot(2)).thenReturn(4L);
+        when(cardRepository.findWithOtherKeyVersion(2, 0L, true, PageRequest.of(0, 2)))
+                .thenReturn(List.of(card(1L, first), card(3L, "not-a-ciphertext")));
+        when(cardRepository.findWithOtherKeyVersion(2, 3L, true, PageRequest.of(0, 2)))
+                .thenReturn(List.of(card(4L, second), card(7L, third)));
+        when(cardRepository.findWithOtherKeyVersion(2, 7L, true, PageRequest.of(0, 2))).thenReturn(List.of());
+        when(cardRepository.countFailedForKeyVersion(2)).thenReturn(1L);
+        when(cardRepository.findIdsFailedForKeyVersion(2, PageRequest.of(0, 100))).thenReturn(List.of(3L));
+
+        reEncryptionService.reset(2, true);
+        reEncryptionService.run(2, true);
+
+        assertEquals(3, written.size());
+        Object[] update = written.get(0);
+        assertEquals(2, update[1]);
+        assertEquals(1L, update[2]);
+        assertEquals(first, update[3]);
+        byte[] envelope = Base64.getDecoder().decode((String) update[0]);
+        assertEquals(2, ((envelope[1] & 0xFF) << 8) | (envelope[2] & 0xFF));
+        assertEquals("1234567890123456", rotatedEncryption.decrypt((String) update[0]));
+        assertThrows(RuntimeException.class, () -> oldEncryption.decrypt((String) update[0]));
+
+        ReEncryptionStatusDto status = reEncryptionService.getStatus();
+        assertEquals(4, status.total());
+        assertEquals(4, status.processed());
+        assertEquals(3, status.reEncrypted());
+        assertEquals(1, status.failed());
+        assertEquals(1, status.unrecoverable());
+        assertEquals(List.of(3L), status.unrecoverableCardIds());
+        assertEquals(7L, status.lastCardId());
+        assertEquals(1, marked.size());
+        assertArrayEquals(new Object[]{2, 3L, "not-a-ciphertext"}, marked.get(0));
+        verify(transactionTemplate, times(2)).execute(any());
+    }
+
+    @Test
+    void start_ShouldRunInBackgroundAndReportCompletion() throws Exception {
+        when(cardRepository.countByKeyVersionNot(2)).thenReturn(1L);
+        when(cardRepository.findWithOtherKeyVersion(eq(2), anyLong(), eq(true), any()))
+                .thenReturn(List.of(card(1L, oldEncryption.encrypt("1234567890123456"))));
+
+        ReEncryptionStatusDto started = reEncryptionService.start();
+        assertEquals(2, started.targetKeyVersion());
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (reEncryptionService.getStatus().running() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        ReEncryptionStatusDto finished = reEncryptionService.getStatus();
+        assertFalse(finished.running());
+        assertEquals(1, finished.reEncrypted());
+        assertNotNull(finished.finishedAt());
+        assertEquals(1L, reEncryptionService.getStats().get("reEncrypted").longValue());
+    }
+
+    @Test
+    void resume_NothingOnOldKeys_ShouldNotStart() {
+        CardReEncryptionServiceImpl resuming = new CardReEncryptionServiceImpl(cardRepository, rotatedEncryption,
+                jdbcTemplate, transactionTemplate, 2, 2, true);
+        try {
+            when(cardRepository.countPendingReEncryption(2)).thenReturn(0L);
+
+            resuming.resume();
+
+            assertFalse(resuming.getStatus().running());
+            assertNull(resuming.getStatus().startedAt());
+            verify(cardRepository, never()).findWithOtherKeyVersion(anyInt(), anyLong(), anyBoolean(), any());
+        } finally {
+            resuming.shutdown();
+        }
+    }
+
+    @Test
+    void resume_OnlyUndecryptableRowsLeft_ShouldReportThemWithoutStarting() {
+        CardReEncryptionServiceImpl resuming = new CardReEncryptionServiceImpl(cardRepository, rotatedEncryption,
+                jdbcTemplate, transactionTemplate, 2, 2, true);
+        try {
+            when(cardRepository.countFailedForKeyVersion(2)).thenReturn(2L);
+            when(cardRepository.findIdsFailedForKeyVersion(2, PageRequest.of(0, 100))).thenReturn(List.of(3L, 5L));
+            when(cardRepository.countPendingReEncryption(2)).thenReturn(0L);
+
+            resuming.resume();
+
+            ReEncryptionStatusDto status = resuming.getStatus();
+            assertFalse(status.running());
+            assertNull(status.startedAt());
+            assertEquals(2, status.targetKeyVersion());
+            assertEquals(2, status.unrecoverable());
+            assertEquals(List.of(3L, 5L), status.unrecoverableCardIds());
+            verify(cardRepository, never()).findWithOtherKeyVersion(anyInt(), anyLong(), anyBoolean(), any());
+        } finally {
+            resuming.shutdown();
+        }
+    }
+
+    @Test
+    void run_OnResume_ShouldSkipRowsThatAlreadyFailed() {
+        when(cardRepository.countPendingReEncryption(2)).thenReturn(1L);
+        when(cardRepository.findWithOtherKeyVersion(2, 0L, false, PageRequest.of(0, 2)))
+                .thenReturn(List.of(card(4L, oldEncryption.encrypt("4000001234567899"))));
+
+        reEncryptionService.reset(2, false);
+        reEncryptionService.run(2, false);
+
+        assertEquals(1, written.size());
+        assertTrue(marked.isEmpty());
+        assertEquals(1, reEncryptionService.getStatus().total());
+        verify(cardRepository, never()).countByKeyVersionNot(anyInt());
+    }
+
+    private static CardRepository.EncryptedNumber card(Long id, String cardNumber) {
+        return new CardRepository.EncryptedNumber() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getCardNumber() {
+                return cardNumber;
+            }
+
+            @Override
+            public String getCardLast4() {
+                return null;
+            }
+
+            @Override
+            public String getCardNumberHash() {
+                return null;
+            }
+        };
+    }
+}
@@ -1,31 +1,43 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.dto.BatchTransferResponseDto;
 import com.example.bankcards.dto.CardResponseDto;
 import com.example.bankcards.dto.CreateCardRequestDto;
 import com.example.bankcards.dto.TransferRequestDto;
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.CardTransaction;
+import com.example.bankcards.entity.TransactionType;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.entity.UserRole;
 import com.example.bankcards.exception.*;
 import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.CardTransactionRepository;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.UserPrincipal;
+import com.example.bankcards.util.CardBlindIndex;
 import com.example.bankcards.util.CardEncryptionUtil;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -34,16 +46,34 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class CardServiceTest {
 
+    private static final String BLIND_INDEX_KEY = "card-blind-index-key-for-tests-32b";
+
     @Mock
     private CardRepository cardRepository;
 
+    @Mock
+    private CardTransactionRepository cardTransactionRepository;
+
     @Mock
     private UserRepository userRepository;
 
     @Mock
     private CardEncryptionUtil encryptionUtil;
 
-    @InjectMocks
+    @Mock
+    private IdempotencyService idempotencyService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private CardLockManager cardLockManager;
+
+    @Mock
+    private TransferLimitService transferLimitService;
+
+    private final CardBlindIndex blindIndex = new CardBlindIndex(BLIND_INDEX_KEY);
+
     private CardServiceImpl cardService;
 
     private User testUser;
@@ -53,6 +83,15 @@ class CardServiceTest {
 
     @BeforeEach
     void setUp() {
+        TransactionSynchronizationManager.initSynchronization();
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().when(cardLockManager.withCardLocks(any(), any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(2).get());
+        cardService = new CardServiceImpl(cardRepository, cardTransactionRepository,
+                new CardTransferProcessor(cardRepository, cardTransactionRepository, transferLimitService), userRepository,
+                encryptionUtil, blindIndex, idempotencyService, cardLockManager, transactionTemplate);
+
         testUser = new User();
         testUser.setId(1L);
         testUser.setUserRole(UserRole.USER);
@@ -80,6 +119,11 @@ class CardServiceTest {
         anotherCard.setUser(testUser);
     }
 
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
     @Test
     void getUserCards_ShouldReturnUserCards() {
         Pageable pageable = Pageable.unpaged();
@@ -96,7 +140,7 @@ class CardServiceTest {
     void getCardById_UserOwnsCard_ShouldReturnCard() {
         when(cardRepository.findById(1L)).thenReturn(Optional.of(testCard));
 
-        CardResponseDto result = cardService.getCardById(1L, testUser);
+        CardResponseDto result = cardService.getCardById(1L, UserPrincipal.from(testUser));
 
         assertNotNull(result);
         assertEquals("John Doe", result.cardHolderName());
@@ -107,7 +151,7 @@ class CardServiceTest {
     void getCardById_AdminAccess_ShouldReturnCard() {
         when(cardRepository.findById(1L)).thenReturn(Optional.of(testCard));
 
-        CardResponseDto result = cardService.getCardById(1L, adminUser);
+        CardResponseDto result = cardService.getCardById(1L, UserPrincipal.from(adminUser));
 
         assertNotNull(result);
         assertEquals("John Doe", result.cardHolderName());
@@ -123,7 +167,7 @@ class CardServiceTest {
         when(cardRepository.findById(1L)).thenReturn(Optional.of(testCard));
 
         assertThrows(OperationNotAllowedException.class,
-                () -> cardService.getCardById(1L, otherUser));
+                () -> cardService.getCardById(1L, UserPrincipal.from(otherUser)));
         verify(cardRepository).findById(1L);
     }
 
@@ -132,7 +176,7 @@ class CardServiceTest {
         when(cardRepository.findById(1L)).thenReturn(Optional.empty());
 
         assertThrows(CardNotFoundException.class,
-                () -> cardService.getCardById(1L, testUser));
+                () -> cardService.getCardById(1L, UserPrincipal.from(testUser)));
         verify(cardRepository).findById(1L);
     }
 
@@ -140,37 +184,47 @@ class CardServiceTest {
     void transferBetweenCards_ValidTransfer_ShouldSucceed() {
         TransferRequestDto request = new TransferRequestDto(1L, 2L, new BigDecimal("100.00"), "desc");
 
-        when(cardRepository.findById(1L)).thenReturn(Optional.of(testCard));
-        when(cardRepository.findById(2L)).thenReturn(Optional.of(anotherCard));
+        when(cardRepository.debit(1L, 1L, 10000L)).thenReturn(1);
+        when(cardRepository.credit(2L, 1L, 10000L)).thenReturn(1);
 
-        cardService.transferBetweenCards(request, testUser);
+        cardService.transferBetweenCards(request, UserPrincipal.from(testUser));
 
-        assertEquals(new BigDecimal("900.00"), testCard.getBalance());
-        assertEquals(new BigDecimal("600.00"), anotherCard.getBalance());
-        verify(cardRepository, times(2)).save(any(Card.class));
+        verify(cardRepository).debit(1L, 1L, 10000L);
+        verify(cardRepository).credit(2L, 1L, 10000L);
+        verify(cardRepository, never()).findById(any());
+        verify(cardRepository, never()).save(any(Card.class));
+        verify(cardTransactionRepository).saveAll(argThat((List<CardTransaction> entries) ->
+                entries.size() == 2
+                        && entries.get(0).getType() == TransactionType.TRANSFER_DEBIT
+                        && entries.get(0).getAmount().equals(new BigDecimal("-100.00"))
+                        && entries.get(1).getType() == TransactionType.TRANSFER_CREDIT
+                        && entries.get(1).getTransferId().equals(entries.get(0).getTransferId())
+                        && "desc".equals(entries.get(1).getDescription())));
     }
 
     @Test
     void transferBetweenCards_InsufficientFunds_ShouldThrowException() {
         TransferRequestDto request = new TransferRequestDto(1L, 2L, new BigDecimal("2000.00"), "desc");
 
+        when(cardRepository.debit(1L, 1L, 200000L)).thenReturn(0);
         when(cardRepository.findById(1L)).thenReturn(Optional.of(testCard));
-        when(cardRepository.findById(2L)).thenReturn(Optional.of(anotherCard));
 
         assertThrows(InsufficientFundsException.class,
-                () -> cardService.transferBetweenCards(request, testUser));
-        verify(cardRepository, never()).save(any(Card.class));
+                () -> cardService.transferBetweenCards(request, UserPrincipal.from(testUser)));
+        verify(cardRepository, never()).credit(any(), any(), anyLong());
+        verify(cardTransactionRepository, never()).saveAll(any());
     }
 
     @Test
     void transferBetweenCards_CardNotFound_ShouldThrowException() {
         TransferRequestDto request = new TransferRequestDto(1L, 2L, new BigDecimal("2000.00"), "desc");
 
+        when(cardRepository.debit(1L, 1L, 200000L)).thenReturn(0);
         when(cardRepository.findById(1L)).thenReturn(Optional.empty());
 
         assertThrows(CardNotFoundException.class,
-                () -> cardService.transferBetweenCards(request, testUser));
-        verify(cardRepository, never()).save(any(Card.class));
+                () -> cardService.transferBetweenCards(request, UserPrincipal.from(testUser)));
+        verify(cardRepository, never()).credit(any(), any(), anyLong());
     }
 
     @Test
@@ -180,19 +234,192 @@ class CardServiceTest {
         otherUser.setId(3L);
         otherUser.setUserRole(UserRole.USER);
 
+        when(cardRepository.debit(1L, 3L, 200000L)).thenReturn(0);
+        when(cardRepository.findById(1L)).thenReturn(Optional.of(testCard));
+
+        assertThrows(OperationNotAllowedException.class,
+                () -> cardService.transferBetweenCards(request, UserPrincipal.from(otherUser)));
+        verify(cardRepository, never()).credit(any(), any(), anyLong());
+    }
+
+    @Test
+    void transferBetweenCards_SourceBlocked_ShouldThrowException() {
+        TransferRequestDto request = new TransferRequestDto(1L, 2L, new BigDecimal("100.00"), "desc");
+        testCard.setStatus(CardStatus.BLOCKED);
+
+        when(cardRepository.debit(1L, 1L, 10000L)).thenReturn(0);
         when(cardRepository.findById(1L)).thenReturn(Optional.of(testCard));
+
+        assertThrows(OperationNotAllowedException.class,
+                () -> cardService.transferBetweenCards(request, UserPrincipal.from(testUser)));
+        verify(cardRepository, never()).credit(any(), any(), anyLong());
+    }
+
+    @Test
+    void transferBetweenCards_DestinationNotActive_ShouldThrowException() {
+        TransferRequestDto request = new TransferRequestDto(1L, 2L, new BigDecimal("100.00"), "desc");
+        anotherCard.setStatus(CardStatus.BLOCKED);
+
+        when(cardRepository.debit(1L, 1L, 10000L)).thenReturn(1);
+        when(cardRepository.credit(2L, 1L, 10000L)).thenReturn(0);
         when(cardRepository.findById(2L)).thenReturn(Optional.of(anotherCard));
 
         assertThrows(OperationNotAllowedException.class,
-                () -> cardService.transferBetweenCards(request, otherUser));
-        verify(cardRepository, never()).save(any(Card.class));
+                () -> cardService.transferBetweenCards(request, UserPrincipal.from(testUser)));
+    }
+
+    @Test
+    void transferBetweenCards_WithNewIdempotencyKey_ShouldTransferAndClaimKey() {
+        TransferRequestDto request = new TransferRequestDto(1L, 2L, new BigDecimal("100.00"), "desc");
+
+        when(idempotencyService.isReplay(1L, "key-1", request.fingerprint())).thenReturn(false);
+        when(idempotencyService.claim(1L, "key-1", request.fingerprint())).thenReturn(true);
+        when(cardRepository.debit(1L, 1L, 10000L)).thenReturn(1);
+        when(cardRepository.credit(2L, 1L, 10000L)).thenReturn(1);
+
+        assertTrue(cardService.transferBetweenCards(request, UserPrincipal.from(testUser), "key-1"));
+        verify(cardRepository).debit(1L, 1L, 10000L);
+    }
+
+    @Test
+    void transferBetweenCards_ReplayedIdempotencyKey_ShouldSkipTransaction() {
+        TransferRequestDto request = new TransferRequestDto(1L, 2L, new BigDecimal("100.00"), "desc");
+
+        when(idempotencyService.isReplay(1L, "key-1", request.fingerprint())).thenReturn(true);
+
+        assertFalse(cardService.transferBetweenCards(request, UserPrincipal.from(testUser), "key-1"));
+        verify(transactionTemplate, never()).execute(any());
+        verify(cardRepository, never()).debit(any(), any(), anyLong());
+    }
+
+    @Test
+    void transferBetweenCards_KeyClaimedConcurrently_ShouldNotTransfer() {
+        TransferRequestDto request = new TransferRequestDto(1L, 2L, new BigDecimal("100.00"), "desc");
+
+        when(idempotencyService.isReplay(1L, "key-1", request.fingerprint())).thenReturn(false);
+        when(idempotencyService.claim(1L, "key-1", request.fingerprint())).thenReturn(false);
+
+        assertFalse(cardService.transferBetweenCards(request, UserPrincipal.from(testUser), "key-1"));
+        verify(cardRepository, never()).debit(any(), any(), anyLong());
+    }
+
+    @Test
+    void transferBetweenCards_LimitExceeded_ShouldNotTouchBalances() {
+        TransferRequestDto request = new TransferRequestDto(1L, 2L, new BigDecimal("100.00"), "desc");
+
+        when(transferLimitService.reserve(1L, UserRole.USER, new BigDecimal("100.00")))
+                .thenThrow(new TransferLimitExceededException("Daily transfer limit exceeded for card 1"));
+
+        assertThrows(TransferLimitExceededException.class,
+                () -> cardService.transferBetweenCards(request, UserPrincipal.from(testUser)));
+        verify(cardRepository, never()).debit(any(), any(), anyLong());
+    }
+
+    @Test
+    void transferBetweenCards_FailedTransfer_ShouldReleaseLimitReservation() {
+        TransferRequestDto request = new TransferRequestDto(1L, 2L, new BigDecimal("2000.00"), "desc");
+        TransferLimitService.LimitReservation reservation = new TransferLimitService.LimitReservation(1L, 10L, 200000L);
+
+        when(transferLimitService.reserve(1L, UserRole.USER, new BigDecimal("2000.00"))).thenReturn(reservation);
+        when(cardRepository.debit(1L, 1L, 200000L)).thenReturn(0);
+        when(cardRepository.findById(1L)).thenReturn(Optional.of(testCard));
+
+        assertThrows(InsufficientFundsException.class,
+                () -> cardService.transferBetweenCards(request, UserPrincipal.from(testUser)));
+        completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+        verify(transferLimitService).release(reservation);
+    }
+
+    @Test
+    void transferBetweenCards_Success_ShouldKeepLimitReservation() {
+        TransferRequestDto request = new TransferRequestDto(1L, 2L, new BigDecimal("100.00"), "desc");
+
+        when(cardRepository.debit(1L, 1L, 10000L)).thenReturn(1);
+        when(cardRepository.credit(2L, 1L, 10000L)).thenReturn(1);
+
+        cardService.transferBetweenCards(request, UserPrincipal.from(testUser));
+        completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+
+        verify(transferLimitService).reserve(1L, UserRole.USER, new BigDecimal("100.00"));
+        verify(transferLimitService, never()).release(any());
+    }
+
+    @Test
+    void transferBatch_MixedItems_ShouldApplyValidOnesAndReportFailures() {
+        List<TransferRequestDto> transfers = List.of(
+                new TransferRequestDto(2L, 1L, new BigDecimal("50.00"), "first"),
+                new TransferRequestDto(1L, 2L, new BigDecimal("5000.00"), "too much"),
+                new TransferRequestDto(1L, 2L, new BigDecimal("300.00"), "second"));
+
+        when(cardRepository.findAllByIdForUpdate(any())).thenReturn(List.of(testCard, anotherCard));
+
+        BatchTransferResponseDto result = cardService.transferBatch(transfers, UserPrincipal.from(testUser));
+
+        assertEquals(2, result.succeeded());
+        assertEquals(1, result.failed());
+        assertFalse(result.results().get(1).success());
+        assertEquals("Insufficient funds on source card", result.results().get(1).error());
+        assertEquals(new BigDecimal("750.00"), testCard.getBalance());
+        assertEquals(new BigDecimal("750.00"), anotherCard.getBalance());
+        verify(cardRepository).findAllByIdForUpdate(argThat(ids -> new ArrayList<>(ids).equals(List.of(1L, 2L))));
+        verify(cardTransactionRepository).saveAll(argThat((List<CardTransaction> entries) -> entries.size() == 4));
+    }
+
+    @Test
+    void transferBatch_OverLimitItem_ShouldBeRejectedWithoutTouchingBalances() {
+        List<TransferRequestDto> transfers = List.of(
+                new TransferRequestDto(1L, 2L, new BigDecimal("100.00"), "within limit"),
+                new TransferRequestDto(1L, 2L, new BigDecimal("600.00"), "over limit"));
+
+        when(cardRepository.findAllByIdForUpdate(any())).thenReturn(List.of(testCard, anotherCard));
+        when(transferLimitService.reserve(1L, UserRole.USER, new BigDecimal("100.00")))
+                .thenReturn(new TransferLimitService.LimitReservation(1L, 10L, 10000L));
+        when(transferLimitService.reserve(1L, UserRole.USER, new BigDecimal("600.00")))
+                .thenThrow(new TransferLimitExceededException("Daily transfer limit exceeded for card 1"));
+
+        BatchTransferResponseDto result = cardService.transferBatch(transfers, UserPrincipal.from(testUser));
+
+        assertEquals(1, result.succeeded());
+        assertEquals(1, result.failed());
+        assertEquals("Daily transfer limit exceeded for card 1", result.results().get(1).error());
+        assertEquals(new BigDecimal("900.00"), testCard.getBalance());
+        assertEquals(new BigDecimal("600.00"), anotherCard.getBalance());
+    }
+
+    @Test
+    void transferBatch_RolledBack_ShouldReleaseLimitReservations() {
+        List<TransferRequestDto> transfers = List.of(
+                new TransferRequestDto(1L, 2L, new BigDecimal("100.00"), "desc"));
+        TransferLimitService.LimitReservation reservation = new TransferLimitService.LimitReservation(1L, 10L, 10000L);
+
+        when(cardRepository.findAllByIdForUpdate(any())).thenReturn(List.of(testCard, anotherCard));
+        when(transferLimitService.reserve(1L, UserRole.USER, new BigDecimal("100.00"))).thenReturn(reservation);
+
+        cardService.transferBatch(transfers, UserPrincipal.from(testUser));
+        completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        verify(transferLimitService).release(reservation);
+    }
+
+    @Test
+    void transferBatch_UnknownCard_ShouldFailItemWithoutTouchingBalances() {
+        List<TransferRequestDto> transfers = List.of(
+                new TransferRequestDto(1L, 99L, new BigDecimal("100.00"), "desc"));
+
+        when(cardRepository.findAllByIdForUpdate(any())).thenReturn(List.of(testCard));
+
+        BatchTransferResponseDto result = cardService.transferBatch(transfers, UserPrincipal.from(testUser));
+
+        assertEquals(0, result.succeeded());
+        assertEquals("Destination card not found", result.results().get(0).error());
+        assertEquals(new BigDecimal("1000.00"), testCard.getBalance());
     }
 
     @Test
     void getCardBalance_UserOwnsCard_ShouldReturnBalance() {
         when(cardRepository.findById(1L)).thenReturn(Optional.of(testCard));
 
-        BigDecimal result = cardService.getCardBalance(1L, testUser);
+        BigDecimal result = cardService.getCardBalance(1L, UserPrincipal.from(testUser));
 
         assertEquals(new BigDecimal("1000.00"), result);
         verify(cardRepository).findById(1L);
@@ -202,7 +429,7 @@ class CardServiceTest {
     void requestBlockCard_ValidRequest_ShouldBlockCard() {
         when(cardRepository.findById(1L)).thenReturn(Optional.of(testCard));
 
-        cardService.requestBlockCard(1L, testUser);
+        cardService.requestBlockCard(1L, UserPrincipal.from(testUser));
 
         assertEquals(CardStatus.BLOCKED, testCard.getStatus());
         verify(cardRepository).save(testCard);
@@ -214,7 +441,7 @@ class CardServiceTest {
         when(cardRepository.findById(1L)).thenReturn(Optional.of(testCard));
 
         assertThrows(OperationNotAllowedException.class,
-                () -> cardService.requestBlockCard(1L, testUser));
+                () -> cardService.requestBlockCard(1L, UserPrincipal.from(testUser)));
         verify(cardRepository, never()).save(any(Card.class));
     }
 
@@ -244,7 +471,49 @@ class CardServiceTest {
         assertNotNull(result);
         verify(userRepository).findById(1L);
         verify(encryptionUtil).encrypt("1234567890123456");
-        verify(cardRepository).save(any(Card.class));
+        verify(cardRepository).save(argThat(card -> "encrypted123".equals(card.getCardNumber())
+                && "3456".equals(card.getCardLast4()) && "123456".equals(card.getCardBin())
+                && blindIndex.compute("1234567890123456").equals(card.getCardNumberHash())));
+        verify(cardTransactionRepository).save(argThat(entry -> entry.getType() == TransactionType.OPENING_BALANCE));
+    }
+
+    @Test
+    void createCard_DuplicateNumber_ShouldThrowException() {
+        CreateCardRequestDto request = new CreateCardRequestDto("1234567890123456", "John Doe",
+                LocalDate.now().plusYears(1), new BigDecimal("1000.00"), 1L);
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(cardRepository.existsByCardNumberHash(blindIndex.compute("1234567890123456"))).thenReturn(true);
+
+        assertThrows(OperationNotAllowedException.class, () -> cardService.createCard(request));
+
+        verify(cardRepository, never()).save(any(Card.class));
+        verifyNoInteractions(encryptionUtil);
+    }
+
+    @Test
+    void findByCardNumber_ExistingCard_ShouldUseBlindIndex() {
+        when(cardRepository.findByCardNumberHash(blindIndex.compute("1234567890123456")))
+                .thenReturn(Optional.of(testCard));
+
+        CardResponseDto result = cardService.findByCardNumber("1234567890123456");
+
+        assertEquals(testCard.getId(), result.id());
+        verifyNoInteractions(encryptionUtil);
+    }
+
+    @Test
+    void findByCardNumber_UnknownCard_ShouldThrowNotFound() {
+        when(cardRepository.findByCardNumberHash(any())).thenReturn(Optional.empty());
+
+        assertThrows(CardNotFoundException.class, () -> cardService.findByCardNumber("1234567890123456"));
+    }
+
+    @Test
+    void findByCardNumber_MalformedNumber_ShouldThrowException() {
+        assertThrows(OperationNotAllowedException.class, () -> cardService.findByCardNumber("1234-5678"));
+
+        verifyNoInteractions(cardRepository);
     }
 
     @Test
@@ -312,4 +581,8 @@ class CardServiceTest {
                 () -> cardService.deleteCard(1L));
         verify(cardRepository, never()).delete(any(Card.class));
     }
-}
\ No newline at end of file
+
+    private static void completeTransaction(int status) {
+        TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.afterCompletion(status));
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.IdempotencyKey;
+import com.example.bankcards.exception.IdempotencyKeyConflictException;
+import com.example.bankcards.exception.OperationNotAllowedException;
+import com.example.bankcards.repository.IdempotencyKeyRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    @Mock
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    private IdempotencyServiceImpl idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyServiceImpl(idempotencyKeyRepository, Duration.ofHours(24), 100, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void isReplay_UnknownKey_ShouldReturnFalse() {
+        when(idempotencyKeyRepository.findByUserIdAndIdempotencyKey(1L, "key-1")).thenReturn(Optional.empty());
+
+        assertFalse(idempotencyService.isReplay(1L, "key-1", "1:2:100:desc"));
+    }
+
+    @Test
+    void isReplay_StoredKey_ShouldReturnTrueAndServeNextCallFromMemory() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        when(idempotencyKeyRepository.findByUserIdAndIdempotencyKey(1L, "key-1"))
+                .thenReturn(Optional.of(storedKey(hashOf("1:2:100:desc"), now.plusHours(1))));
+
+        assertTrue(idempotencyService.isReplay(1L, "key-1", "1:2:100:desc"));
+        assertTrue(idempotencyService.isReplay(1L, "key-1", "1:2:100:desc"));
+        verify(idempotencyKeyRepository, times(1)).findByUserIdAndIdempotencyKey(1L, "key-1");
+    }
+
+    @Test
+    void isReplay_ExpiredKey_ShouldReturnFalse() throws Exception {
+        when(idempotencyKeyRepository.findByUserIdAndIdempotencyKey(1L, "key-1"))
+                .thenReturn(Optional.of(storedKey(hashOf("1:2:100:desc"), LocalDateTime.now().minusMinutes(1))));
+
+        assertFalse(idempotencyService.isReplay(1L, "key-1", "1:2:100:desc"));
+    }
+
+    @Test
+    void isReplay_KeyReusedWithDifferentRequest_ShouldThrowException() throws Exception {
+        when(idempotencyKeyRepository.findByUserIdAndIdempotencyKey(1L, "key-1"))
+                .thenReturn(Optional.of(storedKey(hashOf("1:2:100:desc"), LocalDateTime.now().plusHours(1))));
+
+        assertThrows(IdempotencyKeyConflictException.class,
+                () -> idempotencyService.isReplay(1L, "key-1", "1:2:999:desc"));
+    }
+
+    @Test
+    void isReplay_TooLongKey_ShouldThrowException() {
+        assertThrows(OperationNotAllowedException.class,
+                () -> idempotencyService.isReplay(1L, "k".repeat(101), "1:2:100:desc"));
+        verifyNoInteractions(idempotencyKeyRepository);
+    }
+
+    @Test
+    void claim_NewKey_ShouldCacheAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        when(idempotencyKeyRepository.insertIfAbsent(eq(1L), eq("key-1"), any(), any(), any())).thenReturn(1);
+
+        assertTrue(idempotencyService.claim(1L, "key-1", "1:2:100:desc"));
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertTrue(idempotencyService.isReplay(1L, "key-1", "1:2:100:desc"));
+        verify(idempotencyKeyRepository, never()).findByUserIdAndIdempotencyKey(any(), any());
+    }
+
+    @Test
+    void claim_ExistingKey_ShouldReturnFalse() throws Exception {
+        when(idempotencyKeyRepository.insertIfAbsent(eq(1L), eq("key-1"), any(), any(), any())).thenReturn(0);
+        when(idempotencyKeyRepository.findByUserIdAndIdempotencyKey(1L, "key-1"))
+                .thenReturn(Optional.of(storedKey(hashOf("1:2:100:desc"), LocalDateTime.now().plusHours(1))));
+
+        assertFalse(idempotencyService.claim(1L, "key-1", "1:2:100:desc"));
+    }
+
+    @Test
+    void purgeExpired_ShouldDeleteInBatchesUntilExhausted() {
+        when(idempotencyKeyRepository.deleteExpiredBatch(any(), eq(2))).thenReturn(2, 2, 1);
+
+        assertEquals(5, idempotencyService.purgeExpired());
+        verify(idempotencyKeyRepository, times(3)).deleteExpiredBatch(any(), eq(2));
+    }
+
+    private IdempotencyKey storedKey(String requestHash, LocalDateTime expiresAt) {
+        IdempotencyKey key = new IdempotencyKey();
+        key.setUserId(1L);
+        key.setIdempotencyKey("key-1");
+        key.setRequestHash(requestHash);
+        key.setCreatedAt(expiresAt.minusHours(24));
+        key.setExpiresAt(expiresAt);
+        return key;
+    }
+
+    private String hashOf(String fingerprint) throws NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        return HexFormat.of().formatHex(digest.digest(fingerprint.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.exception.TooManyRequestsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingServiceTest {
+
+    private PasswordHashingServiceImpl passwordHashingService;
+
+    @AfterEach
+    void tearDown() {
+        passwordHashingService.shutdown();
+    }
+
+    @Test
+    void encodeAndMatches_ShouldRunOnHashingThreads() {
+        String[] hashingThread = new String[1];
+        PasswordEncoder recordingEncoder = new BCryptPasswordEncoder(4) {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                hashingThread[0] = Thread.currentThread().getName();
+                return super.encode(rawPassword);
+            }
+        };
+        passwordHashingService = new PasswordHashingServiceImpl(recordingEncoder, 1, 4, 1);
+
+        String encoded = passwordHashingService.encode("password");
+
+        assertEquals("password-hash-0", hashingThread[0]);
+        assertTrue(passwordHashingService.matches("password", encoded));
+        assertFalse(passwordHashingService.matches("wrong", encoded));
+    }
+
+    @Test
+    void needsRehash_WeakerCost_ShouldReturnTrue() {
+        passwordHashingService = new PasswordHashingServiceImpl(new BCryptPasswordEncoder(6), 1, 4, 1);
+
+        assertTrue(passwordHashingService.needsRehash(new BCryptPasswordEncoder(4).encode("password")));
+        assertFalse(passwordHashingService.needsRehash(new BCryptPasswordEncoder(6).encode("password")));
+    }
+
+    @Test
+    void encodeAll_MoreThanQueueCapacity_ShouldHashAllInOrder() {
+        passwordHashingService = new PasswordHashingServiceImpl(new BCryptPasswordEncoder(4), 2, 1, 1);
+        List<String> passwords = List.of("p0", "p1", "p2", "p3", "p4", "p5");
+
+        List<String> encoded = passwordHashingService.encodeAll(passwords);
+
+        assertEquals(passwords.size(), encoded.size());
+        for (int i = 0; i < passwords.size(); i++) {
+            assertTrue(passwordHashingService.matches(passwords.get(i), encoded.get(i)));
+        }
+    }
+
+    @Test
+    void encode_QueueFull_ShouldFailFastWithTooManyRequests() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder blockingEncoder = new BCryptPasswordEncoder(4) {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.encode(rawPassword);
+            }
+        };
+        passwordHashingService = new PasswordHashingServiceImpl(blockingEncoder, 1, 1, 2);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> running = callers.submit(() -> passwordHashingService.encode("first"));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<String> queued = callers.submit(() -> passwordHashingService.encode("second"));
+            while (passwordHashingService.getStats().get("queued").intValue() == 0) {
+                Thread.onSpinWait();
+            }
+
+            TooManyRequestsException exception = assertThrows(TooManyRequestsException.class,
+                    () -> passwordHashingService.encode("third"));
+
+            assertEquals(2L, exception.getRetryAfterSeconds());
+            assertEquals(1L, passwordHashingService.getStats().get("rejected"));
+            release.countDown();
+            assertNotNull(running.get(5, TimeUnit.SECONDS));
+            assertNotNull(queued.get(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            callers.shutdownNow();
+        }
+    }
+}
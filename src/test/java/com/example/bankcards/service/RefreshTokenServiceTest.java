@@ -0,0 +1,128 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.RefreshToken;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.RefreshTokenRepository;
+import com.example.bankcards.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private RefreshTokenServiceImpl refreshTokenService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenService = new RefreshTokenServiceImpl(refreshTokenRepository, userRepository, Duration.ofDays(30), 2);
+        user = new User();
+        user.setId(1L);
+        user.setUsername("testuser");
+        user.setTokenVersion(3L);
+    }
+
+    @Test
+    void issue_ShouldStoreOnlyHashOfOpaqueToken() throws Exception {
+        String token = refreshTokenService.issue(user);
+
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(captor.capture());
+        RefreshToken stored = captor.getValue();
+        assertEquals(43, token.length());
+        assertEquals(hashOf(token), stored.getTokenHash());
+        assertEquals(1L, stored.getUserId());
+        assertEquals(3L, stored.getTokenVersion());
+        assertTrue(stored.getExpiresAt().isAfter(LocalDateTime.now().plusDays(29)));
+    }
+
+    @Test
+    void rotate_ActiveToken_ShouldRevokeItAndIssueReplacement() throws Exception {
+        RefreshToken stored = RefreshToken.of(user, hashOf("old"), LocalDateTime.now().plusDays(1));
+        when(refreshTokenRepository.findByTokenHashForUpdate(hashOf("old"))).thenReturn(Optional.of(stored));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate("old");
+
+        assertSame(user, rotation.user());
+        assertNotEquals("old", rotation.refreshToken());
+        assertNotNull(stored.getRevokedAt());
+        verify(refreshTokenRepository).save(any(RefreshToken.class));
+    }
+
+    @Test
+    void rotate_AlreadyUsedToken_ShouldRevokeWholeFamily() throws Exception {
+        RefreshToken stored = RefreshToken.of(user, hashOf("old"), LocalDateTime.now().plusDays(1));
+        stored.setRevokedAt(LocalDateTime.now().minusMinutes(1));
+        when(refreshTokenRepository.findByTokenHashForUpdate(hashOf("old"))).thenReturn(Optional.of(stored));
+
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.rotate("old"));
+
+        verify(refreshTokenRepository).revokeAllByUserId(eq(1L), any(LocalDateTime.class));
+        verify(refreshTokenRepository, never()).save(any(RefreshToken.class));
+    }
+
+    @Test
+    void rotate_ExpiredToken_ShouldThrow() throws Exception {
+        RefreshToken stored = RefreshToken.of(user, hashOf("old"), LocalDateTime.now().minusSeconds(1));
+        when(refreshTokenRepository.findByTokenHashForUpdate(hashOf("old"))).thenReturn(Optional.of(stored));
+
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.rotate("old"));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void rotate_UserBlockedAfterIssue_ShouldThrow() throws Exception {
+        RefreshToken stored = RefreshToken.of(user, hashOf("old"), LocalDateTime.now().plusDays(1));
+        user.setTokenVersion(4L);
+        when(refreshTokenRepository.findByTokenHashForUpdate(hashOf("old"))).thenReturn(Optional.of(stored));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.rotate("old"));
+        assertNull(stored.getRevokedAt());
+    }
+
+    @Test
+    void rotate_UnknownToken_ShouldThrow() {
+        when(refreshTokenRepository.findByTokenHashForUpdate(any())).thenReturn(Optional.empty());
+
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.rotate("unknown"));
+    }
+
+    @Test
+    void purgeExpired_ShouldDeleteInBatchesUntilShortBatch() {
+        when(refreshTokenRepository.deleteExpiredBatch(any(LocalDateTime.class), anyInt())).thenReturn(2, 2, 1);
+
+        assertEquals(5, refreshTokenService.purgeExpired());
+        verify(refreshTokenRepository, times(3)).deleteExpiredBatch(any(LocalDateTime.class), eq(2));
+    }
+
+    private static String hashOf(String token) throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.UserRole;
+import com.example.bankcards.repository.RevokedTokenRepository;
+import com.example.bankcards.security.UserPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationServiceTest {
+
+    private static final long TOKEN_LIFETIME = 60_000L;
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    private TokenRevocationServiceImpl tokenRevocationService;
+
+    @BeforeEach
+    void setUp() {
+        tokenRevocationService = new TokenRevocationServiceImpl(revokedTokenRepository, TOKEN_LIFETIME, 1000, 0.001, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void isRevoked_UnknownToken_ShouldAnswerFromBloomFilterWithoutQuery() {
+        for (long userId = 1; userId <= 100; userId++) {
+            assertFalse(tokenRevocationService.isRevoked(new UserPrincipal(userId, "user", UserRole.USER, 0)));
+        }
+
+        verifyNoInteractions(revokedTokenRepository);
+        assertEquals(100L, tokenRevocationService.getStats().get("checks"));
+    }
+
+    @Test
+    void revoke_ShouldPersistEntryUntilTokenExpiryAndConfirmOnBloomHit() {
+        LocalDateTime before = LocalDateTime.now();
+
+        tokenRevocationService.revoke(1L, 2L);
+
+        verify(revokedTokenRepository).insertIfAbsent(eq(1L), eq(2L), any(LocalDateTime.class),
+                argThat(expiresAt -> !expiresAt.isBefore(before.plusSeconds(60))));
+
+        when(revokedTokenRepository.existsByUserIdAndTokenVersionAndExpiresAtAfter(eq(1L), eq(2L), any(LocalDateTime.class)))
+                .thenReturn(true);
+        assertTrue(tokenRevocationService.isRevoked(new UserPrincipal(1L, "user", UserRole.USER, 2)));
+        assertEquals(1L, tokenRevocationService.getStats().get("confirmed"));
+    }
+
+    @Test
+    void revoke_AlreadyRevokedConcurrently_ShouldNotFail() {
+        when(revokedTokenRepository.insertIfAbsent(eq(1L), eq(2L), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(1, 0);
+        when(revokedTokenRepository.existsByUserIdAndTokenVersionAndExpiresAtAfter(eq(1L), eq(2L), any(LocalDateTime.class)))
+                .thenReturn(true);
+
+        tokenRevocationService.revoke(1L, 2L);
+        assertDoesNotThrow(() -> tokenRevocationService.revoke(1L, 2L));
+
+        assertTrue(tokenRevocationService.isRevoked(new UserPrincipal(1L, "user", UserRole.USER, 2)));
+    }
+
+    @Test
+    void isRevoked_ExpiredEntry_ShouldNotBeConfirmed() {
+        tokenRevocationService.revoke(1L, 0L);
+        when(revokedTokenRepository.existsByUserIdAndTokenVersionAndExpiresAtAfter(eq(1L), eq(0L), any(LocalDateTime.class)))
+                .thenReturn(false);
+
+        assertFalse(tokenRevocationService.isRevoked(new UserPrincipal(1L, "user", UserRole.USER, 0)));
+        assertEquals(1L, tokenRevocationService.getStats().get("falsePositives"));
+    }
+
+    @Test
+    void refresh_ShouldPurgeExpiredAndRebuildFilterFromTable() {
+        RevokedTokenRepository.RevokedKey remote = mock(RevokedTokenRepository.RevokedKey.class);
+        when(remote.getUserId()).thenReturn(7L);
+        when(remote.getTokenVersion()).thenReturn(3L);
+        when(revokedTokenRepository.deleteExpiredBatch(any(LocalDateTime.class), anyInt())).thenReturn(100, 5);
+        when(revokedTokenRepository.findActiveKeys(any(LocalDateTime.class))).thenReturn(List.of(remote));
+        when(revokedTokenRepository.existsByUserIdAndTokenVersionAndExpiresAtAfter(anyLong(), anyLong(), any(LocalDateTime.class)))
+                .thenReturn(true);
+
+        assertEquals(1, tokenRevocationService.refresh());
+
+        assertTrue(tokenRevocationService.isRevoked(new UserPrincipal(7L, "remote", UserRole.USER, 3)));
+        verify(revokedTokenRepository, times(2)).deleteExpiredBatch(any(LocalDateTime.class), eq(100));
+        assertEquals(1, tokenRevocationService.getStats().get("entries"));
+    }
+
+    @Test
+    void revoke_CommittedAfterRebuildQuery_ShouldSurviveFilterSwap() {
+        TransactionSynchronizationManager.initSynchronization();
+        tokenRevocationService.revoke(1L, 2L);
+        when(revokedTokenRepository.findActiveKeys(any(LocalDateTime.class))).thenReturn(List.of());
+        when(revokedTokenRepository.existsByUserIdAndTokenVersionAndExpiresAtAfter(eq(1L), eq(2L), any(LocalDateTime.class)))
+                .thenReturn(true);
+
+        tokenRevocationService.refresh();
+        commit();
+
+        assertTrue(tokenRevocationService.isRevoked(new UserPrincipal(1L, "user", UserRole.USER, 2)));
+    }
+
+    @Test
+    void revoke_CommittedDuringRebuild_ShouldReachRebuiltFilter() {
+        TransactionSynchronizationManager.initSynchronization();
+        tokenRevocationService.revoke(1L, 2L);
+        when(revokedTokenRepository.findActiveKeys(any(LocalDateTime.class))).thenAnswer(invocation -> {
+            commit();
+            return List.of();
+        });
+        when(revokedTokenRepository.existsByUserIdAndTokenVersionAndExpiresAtAfter(eq(1L), eq(2L), any(LocalDateTime.class)))
+                .thenReturn(true);
+
+        tokenRevocationService.refresh();
+
+        assertTrue(tokenRevocationService.isRevoked(new UserPrincipal(1L, "user", UserRole.USER, 2)));
+    }
+
+    @Test
+    void revoke_RolledBack_ShouldNotMarkTokenRevoked() {
+        TransactionSynchronizationManager.initSynchronization();
+        tokenRevocationService.revoke(1L, 2L);
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertFalse(tokenRevocationService.isRevoked(new UserPrincipal(1L, "user", UserRole.USER, 2)));
+    }
+
+    private static void commit() {
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenVersionServiceTest {
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    @InjectMocks
+    private TokenVersionServiceImpl tokenVersionService;
+
+    @Test
+    void revokeTokens_ShouldRevokeCurrentVersionAndBumpIt() {
+        User user = new User();
+        user.setId(1L);
+        user.setTokenVersion(4L);
+
+        tokenVersionService.revokeTokens(user);
+
+        assertEquals(5L, user.getTokenVersion());
+        verify(tokenRevocationService).revoke(1L, 4L);
+    }
+}
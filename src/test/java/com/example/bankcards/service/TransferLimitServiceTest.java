@@ -0,0 +1,169 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.TransferLimitProperties;
+import com.example.bankcards.dto.CardLimitDto;
+import com.example.bankcards.entity.CardLimit;
+import com.example.bankcards.entity.UserRole;
+import com.example.bankcards.exception.CardNotFoundException;
+import com.example.bankcards.exception.TransferLimitExceededException;
+import com.example.bankcards.repository.CardLimitRepository;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.CardTransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransferLimitServiceTest {
+
+    @Mock
+    private CardLimitRepository cardLimitRepository;
+
+    @Mock
+    private CardTransactionRepository cardTransactionRepository;
+
+    @Mock
+    private CardRepository cardRepository;
+
+    private TransferLimitServiceImpl transferLimitService;
+
+    @BeforeEach
+    void setUp() {
+        TransferLimitProperties properties = new TransferLimitProperties(Duration.ofHours(24), 24, Duration.ofMinutes(5),
+                Map.of(UserRole.USER, new TransferLimitProperties.RoleLimits(
+                        new BigDecimal("500.00"), new BigDecimal("1000.00"), 3)));
+        transferLimitService = new TransferLimitServiceImpl(
+                cardLimitRepository, cardTransactionRepository, cardRepository, properties);
+    }
+
+    @Test
+    void reserve_AbovePerTransactionLimit_ShouldThrowException() {
+        assertThrows(TransferLimitExceededException.class,
+                () -> transferLimitService.reserve(1L, UserRole.USER, new BigDecimal("500.01")));
+    }
+
+    @Test
+    void reserve_DailyAmountExhausted_ShouldThrowException() {
+        transferLimitService.reserve(1L, UserRole.USER, new BigDecimal("500.00"));
+        transferLimitService.reserve(1L, UserRole.USER, new BigDecimal("400.00"));
+
+        assertThrows(TransferLimitExceededException.class,
+                () -> transferLimitService.reserve(1L, UserRole.USER, new BigDecimal("100.01")));
+        transferLimitService.reserve(2L, UserRole.USER, new BigDecimal("500.00"));
+    }
+
+    @Test
+    void reserve_DailyCountExhausted_ShouldThrowException() {
+        for (int i = 0; i < 3; i++) {
+            transferLimitService.reserve(1L, UserRole.USER, new BigDecimal("1.00"));
+        }
+
+        assertThrows(TransferLimitExceededException.class,
+                () -> transferLimitService.reserve(1L, UserRole.USER, new BigDecimal("1.00")));
+    }
+
+    @Test
+    void release_ShouldGiveBackReservedAmount() {
+        TransferLimitService.LimitReservation reservation =
+                transferLimitService.reserve(1L, UserRole.USER, new BigDecimal("500.00"));
+        transferLimitService.reserve(1L, UserRole.USER, new BigDecimal("500.00"));
+
+        transferLimitService.release(reservation);
+
+        assertNotNull(transferLimitService.reserve(1L, UserRole.USER, new BigDecimal("500.00")));
+    }
+
+    @Test
+    void reserve_RoleWithoutLimits_ShouldBeUnlimited() {
+        assertNotNull(transferLimitService.reserve(1L, UserRole.ADMIN, new BigDecimal("1000000.00")));
+    }
+
+    @Test
+    void reconcile_ShouldRebuildWindowsFromJournalAndLoadOverrides() {
+        CardLimit override = new CardLimit();
+        override.setCardId(2L);
+        override.setPerTransactionMinor(5000L);
+        when(cardLimitRepository.findAll()).thenReturn(List.of(override));
+        long bucket = LocalDateTime.now().toEpochSecond(ZoneOffset.UTC) / 3600;
+        when(cardTransactionRepository.sumDebitsByBucket(any(), anyLong()))
+                .thenReturn(List.of(debitBucket(1L, bucket, new BigDecimal("950.00"), 1L)));
+
+        assertEquals(1, transferLimitService.reconcile());
+
+        assertThrows(TransferLimitExceededException.class,
+                () -> transferLimitService.reserve(1L, UserRole.USER, new BigDecimal("60.00")));
+        assertThrows(TransferLimitExceededException.class,
+                () -> transferLimitService.reserve(2L, UserRole.USER, new BigDecimal("50.01")));
+        assertEquals(1, transferLimitService.getStats().get("cardOverrides"));
+    }
+
+    @Test
+    void updateCardLimits_AllNull_ShouldRemoveOverride() {
+        when(cardRepository.existsById(1L)).thenReturn(true);
+
+        transferLimitService.updateCardLimits(1L, new CardLimitDto(null, null, null));
+
+        verify(cardLimitRepository).deleteById(1L);
+        verify(cardLimitRepository, never()).save(any());
+    }
+
+    @Test
+    void updateCardLimits_ShouldApplyOverrideImmediately() {
+        when(cardRepository.existsById(1L)).thenReturn(true);
+        when(cardLimitRepository.save(any(CardLimit.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        transferLimitService.updateCardLimits(1L, new CardLimitDto(new BigDecimal("10.00"), null, null));
+
+        assertThrows(TransferLimitExceededException.class,
+                () -> transferLimitService.reserve(1L, UserRole.USER, new BigDecimal("10.01")));
+        verify(cardLimitRepository).save(argThat(limit -> limit.getPerTransactionMinor() == 1000L
+                && limit.getDailyAmountMinor() == null));
+    }
+
+    @Test
+    void updateCardLimits_UnknownCard_ShouldThrowException() {
+        when(cardRepository.existsById(9L)).thenReturn(false);
+
+        assertThrows(CardNotFoundException.class,
+                () -> transferLimitService.updateCardLimits(9L, new CardLimitDto(null, null, 1)));
+    }
+
+    private static CardTransactionRepository.DebitBucket debitBucket(Long cardId, long bucket,
+                                                                     BigDecimal total, Long transfers) {
+        return new CardTransactionRepository.DebitBucket() {
+            @Override
+            public Long getCardId() {
+                return cardId;
+            }
+
+            @Override
+            public Long getBucket() {
+                return bucket;
+            }
+
+            @Override
+            public BigDecimal getTotal() {
+                return total;
+            }
+
+            @Override
+            public Long getTransfers() {
+                return transfers;
+            }
+        };
+    }
+}
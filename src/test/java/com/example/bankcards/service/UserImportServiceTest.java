@@ -0,0 +1,156 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.UserImportResultDto;
+import com.example.bankcards.exception.OperationNotAllowedException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserImportServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private PasswordHashingService passwordHashingService;
+
+    private UserImportServiceImpl userImportService;
+    private final List<List<Object[]>> insertedBatches = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        userImportService = new UserImportServiceImpl(jdbcTemplate, namedParameterJdbcTemplate, transactionTemplate,
+                passwordHashingService, new ObjectMapper(), validator, 2, 10);
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().when(passwordHashingService.encodeAll(anyList())).thenAnswer(invocation ->
+                invocation.<List<String>>getArgument(0).stream().map(raw -> "hash:" + raw).toList());
+        lenient().when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            List<Object[]> rows = invocation.getArgument(1);
+            insertedBatches.add(rows);
+            int[] counts = new int[rows.size()];
+            java.util.Arrays.fill(counts, 1);
+            return counts;
+        });
+    }
+
+    @Test
+    void importUsers_Ndjson_ShouldInsertValidRowsInBatchesAndReportInvalid() throws Exception {
+        String body = """
+                {"username":"alice","email":"alice@example.com","password":"secret1"}
+                {"username":"bob","email":"bob@example.com","password":"secret2"}
+
+                {"username":"x","email":"not-an-email","password":"secret3"}
+                {not json}
+                {"username":"carol","email":"carol@example.com","password":"secret4"}
+                """;
+
+        UserImportResultDto result = userImportService.importUsers(stream(body), UserImportService.Format.NDJSON);
+
+        assertEquals(5, result.processed());
+        assertEquals(3, result.imported());
+        assertEquals(2, result.invalid());
+        assertEquals(0, result.duplicates());
+        assertEquals(List.of("line 4: Email should be valid; Username must be between 3 and 50 characters", "line 5: malformed JSON"),
+                result.errors());
+        assertEquals(2, insertedBatches.size());
+        assertArrayEquals(new Object[]{"alice", "alice@example.com", "hash:secret1", "USER"}, insertedBatches.get(0).get(0));
+        assertEquals(1, insertedBatches.get(1).size());
+    }
+
+    @Test
+    void importUsers_ExistingAndRepeatedUsers_ShouldSkipWithoutHashing() throws Exception {
+        doAnswer(invocation -> {
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.getString("username")).thenReturn("alice");
+            when(rs.getString("email")).thenReturn("alice@example.com");
+            invocation.<RowCallbackHandler>getArgument(2).processRow(rs);
+            return null;
+        }).when(namedParameterJdbcTemplate).query(anyString(), any(SqlParameterSource.class), any(RowCallbackHandler.class));
+        String body = """
+                {"username":"alice","email":"other@example.com","password":"secret1"}
+                {"username":"bob","email":"bob@example.com","password":"secret2"}
+                """;
+
+        UserImportResultDto result = userImportService.importUsers(stream(body), UserImportService.Format.NDJSON);
+
+        assertEquals(1, result.imported());
+        assertEquals(1, result.duplicates());
+        assertEquals(List.of("line 1: username or email already exists"), result.errors());
+        ArgumentCaptor<List<String>> hashed = ArgumentCaptor.forClass(List.class);
+        verify(passwordHashingService).encodeAll(hashed.capture());
+        assertEquals(List.of("secret2"), hashed.getValue());
+    }
+
+    @Test
+    void importUsers_ConflictDuringInsert_ShouldCountAsDuplicate() throws Exception {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1, 0});
+        String body = """
+                {"username":"alice","email":"alice@example.com","password":"secret1"}
+                {"username":"bob","email":"bob@example.com","password":"secret2"}
+                """;
+
+        UserImportResultDto result = userImportService.importUsers(stream(body), UserImportService.Format.NDJSON);
+
+        assertEquals(1, result.imported());
+        assertEquals(1, result.duplicates());
+    }
+
+    @Test
+    void importUsers_Csv_ShouldParseQuotedColumns() throws Exception {
+        String body = "﻿username,email,password\r\n" +
+                "alice,alice@example.com,\"pa,ss\"\"word\"\r\n" +
+                "bob,bob@example.com\r\n";
+
+        UserImportResultDto result = userImportService.importUsers(stream(body), UserImportService.Format.CSV);
+
+        assertEquals(2, result.processed());
+        assertEquals(1, result.imported());
+        assertEquals(List.of("line 3: expected 3 columns but got 2"), result.errors());
+        assertEquals("hash:pa,ss\"word", insertedBatches.get(0).get(0)[2]);
+    }
+
+    @Test
+    void importUsers_CsvWithoutHeader_ShouldThrow() {
+        assertThrows(OperationNotAllowedException.class, () -> userImportService.importUsers(
+                stream("alice,alice@example.com,secret1\n"), UserImportService.Format.CSV));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
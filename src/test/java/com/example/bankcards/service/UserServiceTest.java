@@ -36,6 +36,9 @@ class UserServiceTest {
     @Mock
     private CardRepository cardRepository;
 
+    @Mock
+    private TokenVersionService tokenVersionService;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -67,6 +70,7 @@ class UserServiceTest {
         verify(userRepository).existsByUsername("newusername");
         verify(userRepository).existsByEmail("new@example.com");
         verify(userRepository).save(any(User.class));
+        verify(tokenVersionService).revokeTokens(testUser);
     }
 
     @Test
@@ -173,6 +177,7 @@ class UserServiceTest {
         assertFalse(testUser.isEnabled());
         verify(userRepository).findById(1L);
         verify(userRepository).save(testUser);
+        verify(tokenVersionService).revokeTokens(testUser);
     }
 
     @Test
@@ -0,0 +1,100 @@
+package com.example.bankcards.util;
+
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CardEncryptionUtilTest {
+
+    private static final String KEY = "card-encryption-key-32-chars-123";
+
+    private final CardEncryptionUtil encryptionUtil = new CardEncryptionUtil(KEY);
+
+    @Test
+    void encrypt_SamePlaintext_ShouldProduceDifferentEnvelopes() {
+        String first = encryptionUtil.encrypt("1234567890123456");
+        String second = encryptionUtil.encrypt("1234567890123456");
+
+        assertNotEquals(first, second);
+        byte[] envelope = Base64.getDecoder().decode(first);
+        assertEquals(1, envelope[0]);
+        assertEquals(1, ((envelope[1] & 0xFF) << 8) | (envelope[2] & 0xFF));
+        assertEquals(3 + 12 + 16 + 16, envelope.length);
+        assertEquals("1234567890123456", encryptionUtil.decrypt(first));
+        assertEquals("1234567890123456", encryptionUtil.decrypt(second));
+    }
+
+    @Test
+    void decrypt_LegacyEcbCiphertext_ShouldStillDecrypt() throws Exception {
+        Cipher cipher = Cipher.getInstance("AES");
+        cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(KEY.getBytes(StandardCharsets.UTF_8), "AES"));
+        String legacy = Base64.getEncoder().encodeToString(
+                cipher.doFinal("4000001234567899".getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals("4000001234567899", encryptionUtil.decrypt(legacy));
+    }
+
+    @Test
+    void decrypt_TamperedEnvelope_ShouldFail() {
+        byte[] envelope = Base64.getDecoder().decode(encryptionUtil.encrypt("1234567890123456"));
+        envelope[20] ^= 1;
+
+        assertThrows(RuntimeException.class,
+                () -> encryptionUtil.decrypt(Base64.getEncoder().encodeToString(envelope)));
+    }
+
+    @Test
+    void decrypt_OtherKey_ShouldFail() {
+        String encrypted = new CardEncryptionUtil("another-encryption-key-32-chars!").encrypt("1234567890123456");
+
+        assertThrows(RuntimeException.class, () -> encryptionUtil.decrypt(encrypted));
+    }
+
+    @Test
+    void encryptAndDecrypt_ConcurrentThreads_ShouldRoundTrip() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = IntStream.range(0, 200)
+                    .mapToObj(i -> executor.submit(() -> {
+                        String cardNumber = String.format("4000%012d", i);
+                        return cardNumber.equals(encryptionUtil.decrypt(encryptionUtil.encrypt(cardNumber)));
+                    }))
+                    .toList();
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void decrypt_AfterRotation_ShouldReadOldKeysAndWriteActiveKey() {
+        String oldEnvelope = encryptionUtil.encrypt("1234567890123456");
+        CardEncryptionUtil rotated = new CardEncryptionUtil(Map.of(1, KEY, 2, "rotated-encryption-key-32-chars!"), 2);
+
+        String newEnvelope = rotated.encrypt("1234567890123456");
+
+        assertEquals(2, rotated.getActiveKeyId());
+        assertEquals(2, Base64.getDecoder().decode(newEnvelope)[2]);
+        assertEquals("1234567890123456", rotated.decrypt(oldEnvelope));
+        assertEquals("1234567890123456", rotated.decrypt(newEnvelope));
+        assertThrows(RuntimeException.class, () -> encryptionUtil.decrypt(newEnvelope));
+    }
+
+    @Test
+    void constructor_ActiveKeyMissing_ShouldFail() {
+        assertThrows(IllegalArgumentException.class, () -> new CardEncryptionUtil(Map.of(1, KEY), 2));
+    }
+}